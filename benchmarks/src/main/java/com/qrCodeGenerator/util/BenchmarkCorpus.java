@@ -0,0 +1,63 @@
+package com.qrCodeGenerator.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+public final class BenchmarkCorpus {
+
+  public static final long SEED = 0x5EEDL;
+
+  private static final String DIGITS = "0123456789";
+  private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+  private static final String TEXT = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ,.;!?'\"()";
+  private static final String URL_PREFIX = "https://example.com/p/";
+
+  private BenchmarkCorpus() {
+  }
+
+
+  public static String generate(String kind, int length) {
+    return generate(kind, length, new Random(SEED ^ ((long) kind.hashCode() << 32) ^ length));
+  }
+
+
+  public static List<String> generate(String kind, int length, int count) {
+    Random random = new Random(SEED ^ ((long) kind.hashCode() << 32) ^ length);
+    List<String> items = new ArrayList<String>(count);
+    for (int i = 0; i < count; i++) {
+      items.add(generate(kind, length, random));
+    }
+    return items;
+  }
+
+  private static String generate(String kind, int length, Random random) {
+    StringBuilder result = new StringBuilder(length);
+    if ("NUMERIC".equals(kind)) {
+      append(result, DIGITS, length, random);
+    } else if ("ALPHANUMERIC".equals(kind)) {
+      append(result, ALPHANUMERIC, length, random);
+    } else if ("TEXT".equals(kind)) {
+      append(result, TEXT, length, random);
+    } else if ("URL".equals(kind)) {
+      result.append(URL_PREFIX, 0, Math.min(length, URL_PREFIX.length()));
+      append(result, DIGITS, length - result.length(), random);
+    } else if ("MIXED".equals(kind)) {
+      while (result.length() < length) {
+        String alphabet = random.nextBoolean() ? DIGITS : random.nextBoolean() ? ALPHANUMERIC : TEXT;
+        append(result, alphabet, Math.min(length - result.length(), 4 + random.nextInt(28)), random);
+      }
+    } else {
+      throw new IllegalArgumentException("Unknown corpus kind: " + kind);
+    }
+    return result.toString();
+  }
+
+  private static void append(StringBuilder result, String alphabet, int count, Random random) {
+    for (int i = 0; i < count; i++) {
+      result.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+package com.qrCodeGenerator.util;
+
+import com.qrCodeGenerator.util.common.BitMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiFormatWriterBenchmark {
+
+  private static final int CORPUS_SIZE = 64;
+
+  @Param({"QR_CODE:TEXT:64", "QR_CODE:URL:512", "PDF_417:TEXT:256", "CODE_128:ALPHANUMERIC:24", "ITF:NUMERIC:14"})
+  public String input;
+
+  @Param({"400"})
+  public int size;
+
+  private final MultiFormatWriter writer = new MultiFormatWriter();
+  private BarcodeFormat format;
+  private List<String> corpus;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    String[] parts = input.split(":");
+    format = BarcodeFormat.valueOf(parts[0]);
+    corpus = BenchmarkCorpus.generate(parts[1], Integer.parseInt(parts[2]), CORPUS_SIZE);
+  }
+
+  @Benchmark
+  public BitMatrix encode() throws WriterException {
+    String contents = corpus.get(next);
+    next = (next + 1) % CORPUS_SIZE;
+    return writer.encode(contents, format, size, size);
+  }
+
+}
@@ -0,0 +1,89 @@
+package com.qrCodeGenerator.util.client.j2se;
+
+import com.qrCodeGenerator.util.BarcodeFormat;
+import com.qrCodeGenerator.util.MultiFormatWriter;
+import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageRenderingBenchmark {
+
+  private static final int BLACK = 0xFF000000;
+  private static final int WHITE = 0xFFFFFFFF;
+
+  @Param({"250", "1000", "2000"})
+  public int size;
+
+  private BitMatrix matrix;
+  private MatrixToImageConfig colorConfig;
+  private ByteArrayOutputStream output;
+
+  @Setup
+  public void setUp() throws WriterException {
+    matrix = new MultiFormatWriter().encode("https://example.com/benchmark?id=0123456789",
+        BarcodeFormat.QR_CODE, size, size);
+    colorConfig = new MatrixToImageConfig(0xFF1A237E, 0xFFFFF8E1);
+    output = new ByteArrayOutputStream(1 << 16);
+  }
+
+  @Benchmark
+  public BufferedImage setRGBPerPixel() {
+    int width = matrix.getWidth();
+    int height = matrix.getHeight();
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        image.setRGB(x, y, matrix.get(x, y) ? BLACK : WHITE);
+      }
+    }
+    return image;
+  }
+
+  @Benchmark
+  public BufferedImage binaryRaster() {
+    return MatrixToImageWriter.toBufferedImage(matrix);
+  }
+
+  @Benchmark
+  public BufferedImage palettedRaster() {
+    return MatrixToImageWriter.toBufferedImage(matrix, colorConfig);
+  }
+
+  @Benchmark
+  public int imageIOPng() throws IOException {
+    output.reset();
+    ImageIO.write(MatrixToImageWriter.toBufferedImage(matrix), "png", output);
+    return output.size();
+  }
+
+  @Benchmark
+  public int streamingPng() throws IOException {
+    output.reset();
+    MatrixToPngWriter.writeToStream(matrix, output);
+    return output.size();
+  }
+
+}
@@ -0,0 +1,78 @@
+package com.qrCodeGenerator.util.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitArrayBenchmark {
+
+  @Param({"19", "2956"})
+  public int numBytes;
+
+  private byte[] data;
+  private BitArray payload;
+  private BitArray reversed;
+  private byte[] output;
+
+  @Setup
+  public void setUp() {
+    data = new byte[numBytes];
+    new Random(numBytes).nextBytes(data);
+    payload = new BitArray();
+    for (byte b : data) {
+      payload.appendBits(b, 8);
+    }
+    reversed = new BitArray();
+    reversed.appendBitArray(payload);
+    output = new byte[numBytes];
+  }
+
+  @Benchmark
+  public BitArray appendBits() {
+    BitArray bits = new BitArray();
+    for (byte b : data) {
+      bits.appendBits(b, 8);
+    }
+    return bits;
+  }
+
+  @Benchmark
+  public BitArray appendBitArrayUnaligned() {
+    BitArray bits = new BitArray();
+    bits.appendBits(0x4, 4);
+    bits.appendBits(numBytes, 16);
+    bits.appendBitArray(payload);
+    return bits;
+  }
+
+  @Benchmark
+  public byte[] toBytes() {
+    payload.toBytes(0, output, 0, numBytes);
+    return output;
+  }
+
+  @Benchmark
+  public BitArray reverse() {
+    reversed.reverse();
+    return reversed;
+  }
+
+}
@@ -0,0 +1,62 @@
+package com.qrCodeGenerator.util.common.reedsolomon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReedSolomonBenchmark {
+
+  @Param({"15:7", "68:18", "118:30"})
+  public String block;
+
+  private byte[] data;
+  private int[] toEncode;
+  private byte[] ecBytes;
+  private ReedSolomonByteEncoder byteEncoder;
+
+  @Setup
+  public void setUp() {
+    String[] parts = block.split(":");
+    int numDataBytes = Integer.parseInt(parts[0]);
+    int numEcBytes = Integer.parseInt(parts[1]);
+    data = new byte[numDataBytes];
+    new Random(numDataBytes).nextBytes(data);
+    toEncode = new int[numDataBytes + numEcBytes];
+    ecBytes = new byte[numEcBytes];
+    byteEncoder = new ReedSolomonByteEncoder(GenericGF.QR_CODE_FIELD_256, new int[]{numEcBytes});
+  }
+
+  @Benchmark
+  public int[] polynomialDivision() {
+    for (int i = 0; i < data.length; i++) {
+      toEncode[i] = data[i] & 0xFF;
+    }
+    new ReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256).encode(toEncode, ecBytes.length);
+    return toEncode;
+  }
+
+  @Benchmark
+  public byte[] generatorTable() {
+    byteEncoder.encode(data, 0, data.length, ecBytes);
+    return ecBytes;
+  }
+
+}
@@ -0,0 +1,93 @@
+package com.qrCodeGenerator.util.oned;
+
+import com.qrCodeGenerator.util.BarcodeFormat;
+import com.qrCodeGenerator.util.MultiFormatWriter;
+import com.qrCodeGenerator.util.NotFoundException;
+import com.qrCodeGenerator.util.ReaderException;
+import com.qrCodeGenerator.util.Result;
+import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OneDReaderBenchmark {
+
+  @Param({"CODE_128:Hello-128", "EAN_13:5901234123457"})
+  public String input;
+
+  @Param({"1200"})
+  public int width;
+
+  private OneDReader reader;
+  private OneDReader[] readers;
+  private MultiFormatOneDReader multiFormatReader;
+  private BitArray row;
+
+  @Setup
+  public void setUp() throws WriterException {
+    String[] parts = input.split(":");
+    BarcodeFormat format = BarcodeFormat.valueOf(parts[0]);
+    switch (format) {
+      case CODE_128:
+        reader = new Code128Reader();
+        break;
+      case EAN_13:
+        reader = new EAN13Reader();
+        break;
+      default:
+        throw new IllegalArgumentException(input);
+    }
+    readers = new OneDReader[] {
+        new Code39Reader(), new ITFReader(), new CodaBarReader(), new UPCEReader(), reader};
+    multiFormatReader = new MultiFormatOneDReader();
+    BitArray symbol = new MultiFormatWriter().encode(parts[1], format, width, 1).getRow(0, null);
+    int quietZone = width >> 3;
+    row = new BitArray(symbol.getSize() + 2 * quietZone);
+    for (int x = symbol.getNextSet(0); x < symbol.getSize(); x = symbol.getNextSet(x)) {
+      int end = symbol.getNextUnset(x);
+      row.setRange(quietZone + x, quietZone + end);
+      x = end;
+    }
+  }
+
+  @Benchmark
+  public Result decodeRow() throws ReaderException {
+    return reader.decodeRow(0, row, null);
+  }
+
+  @Benchmark
+  public Result decodeRowEachFormat() throws ReaderException {
+    for (OneDReader candidate : readers) {
+      try {
+        return candidate.decodeRow(0, row, null);
+      } catch (ReaderException re) {
+
+      }
+    }
+    throw NotFoundException.getNotFoundInstance();
+  }
+
+  @Benchmark
+  public Result decodeRowMultiFormat() throws ReaderException {
+    return multiFormatReader.decodeRow(0, row, null);
+  }
+
+}
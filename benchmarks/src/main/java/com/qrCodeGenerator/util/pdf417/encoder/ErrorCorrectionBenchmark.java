@@ -0,0 +1,80 @@
+package com.qrCodeGenerator.util.pdf417.encoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorCorrectionBenchmark {
+
+  private static final int MAX_DATA_CODEWORDS = 400;
+
+  @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8"})
+  public int errorCorrectionLevel;
+
+  private int numDataCodewords;
+  private int numECCodewords;
+  private int[] codewords;
+  private int[] coefficients;
+
+  @Setup
+  public void setUp() throws Exception {
+    numECCodewords = PDF417ErrorCorrection.getErrorCorrectionCodewordCount(errorCorrectionLevel);
+    numDataCodewords = Math.min(MAX_DATA_CODEWORDS, 928 - numECCodewords);
+    codewords = new int[numDataCodewords + numECCodewords];
+    Random random = new Random(errorCorrectionLevel);
+    codewords[0] = numDataCodewords;
+    for (int i = 1; i < numDataCodewords; i++) {
+      codewords[i] = random.nextInt(900);
+    }
+    coefficients = getCoefficients(errorCorrectionLevel);
+  }
+
+  @Benchmark
+  public int[] lazyReduction() {
+    PDF417ErrorCorrection.generateErrorCorrection(codewords, numDataCodewords, errorCorrectionLevel);
+    return codewords;
+  }
+
+  @Benchmark
+  public int[] moduloPerCoefficient() {
+    int k = numECCodewords;
+    int[] e = new int[k];
+    for (int i = 0; i < numDataCodewords; i++) {
+      int t1 = (codewords[i] + e[k - 1]) % 929;
+      for (int j = k - 1; j >= 1; j--) {
+        e[j] = (e[j - 1] + 929 - (t1 * coefficients[j]) % 929) % 929;
+      }
+      e[0] = (929 - (t1 * coefficients[0]) % 929) % 929;
+    }
+    for (int j = k - 1; j >= 0; j--) {
+      codewords[numDataCodewords + k - 1 - j] = e[j] == 0 ? 0 : 929 - e[j];
+    }
+    return codewords;
+  }
+
+  private static int[] getCoefficients(int errorCorrectionLevel) throws Exception {
+    Field field = PDF417ErrorCorrection.class.getDeclaredField("EC_COEFFICIENTS");
+    field.setAccessible(true);
+    return ((int[][]) field.get(null))[errorCorrectionLevel];
+  }
+
+}
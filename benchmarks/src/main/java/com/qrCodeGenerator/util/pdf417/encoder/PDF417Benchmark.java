@@ -0,0 +1,49 @@
+package com.qrCodeGenerator.util.pdf417.encoder;
+
+import com.qrCodeGenerator.util.BenchmarkCorpus;
+import com.qrCodeGenerator.util.WriterException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PDF417Benchmark {
+
+  @Param({"TEXT:32", "TEXT:256", "TEXT:1100", "MIXED:1200", "NUMERIC:2400"})
+  public String input;
+
+  @Param({"2", "4"})
+  public int errorCorrectionLevel;
+
+  private String content;
+
+  @Setup
+  public void setUp() {
+    String[] parts = input.split(":");
+    content = BenchmarkCorpus.generate(parts[0], Integer.parseInt(parts[1]));
+  }
+
+  @Benchmark
+  public BarcodeMatrix generateBarcodeLogic() throws WriterException {
+    PDF417 encoder = new PDF417();
+    encoder.generateBarcodeLogic(content, errorCorrectionLevel);
+    return encoder.getBarcodeMatrix();
+  }
+
+}
@@ -0,0 +1,67 @@
+package com.qrCodeGenerator.util.qrcode.encoder;
+
+import com.qrCodeGenerator.util.BenchmarkCorpus;
+import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.qrcode.decoder.ErrorCorrectionLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncoderBenchmark {
+
+  @Param({"NUMERIC", "ALPHANUMERIC", "TEXT", "URL", "MIXED"})
+  public String payload;
+
+  @Param({"16", "128", "1024"})
+  public int length;
+
+  @Param({"L", "M", "Q", "H"})
+  public String ecLevel;
+
+  private String content;
+  private ErrorCorrectionLevel errorCorrectionLevel;
+  private Map<EncodeHintType,Object> compactHints;
+
+  @Setup
+  public void setUp() {
+    content = BenchmarkCorpus.generate(payload, length);
+    errorCorrectionLevel = ErrorCorrectionLevel.valueOf(ecLevel);
+    compactHints = new EnumMap<EncodeHintType,Object>(EncodeHintType.class);
+    compactHints.put(EncodeHintType.QR_COMPACT, Boolean.TRUE);
+  }
+
+  @Benchmark
+  public QRCode encode() throws WriterException {
+    QRCode qrCode = new QRCode();
+    Encoder.encode(content, errorCorrectionLevel, qrCode);
+    return qrCode;
+  }
+
+  @Benchmark
+  public QRCode encodeCompact() throws WriterException {
+    QRCode qrCode = new QRCode();
+    Encoder.encode(content, errorCorrectionLevel, compactHints, qrCode);
+    return qrCode;
+  }
+
+}
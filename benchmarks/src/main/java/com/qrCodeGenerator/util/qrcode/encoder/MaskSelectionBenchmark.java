@@ -0,0 +1,72 @@
+package com.qrCodeGenerator.util.qrcode.encoder;
+
+import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitArray;
+import com.qrCodeGenerator.util.qrcode.decoder.ErrorCorrectionLevel;
+import com.qrCodeGenerator.util.qrcode.decoder.Version;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskSelectionBenchmark {
+
+  @Param({"1", "10", "20", "30", "40"})
+  public int version;
+
+  private BitArray bits;
+  private ModuleMatrix matrix;
+
+  @Setup
+  public void setUp() {
+    Version qrVersion = Version.getVersionForNumber(version);
+    Random random = new Random(version);
+    bits = new BitArray();
+    for (int i = 0; i < qrVersion.getTotalCodewords(); i++) {
+      bits.appendBits(random.nextInt(256), 8);
+    }
+    int dimension = qrVersion.getDimensionForVersion();
+    matrix = new ModuleMatrix(dimension, dimension);
+  }
+
+  @Benchmark
+  public int rebuildPerMask() throws WriterException {
+    int minPenalty = Integer.MAX_VALUE;
+    int bestMaskPattern = -1;
+    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
+      MatrixUtil.buildMatrix(bits, ErrorCorrectionLevel.M, version, maskPattern, matrix);
+      int penalty = MaskUtil.applyMaskPenaltyRule1(matrix) +
+          MaskUtil.applyMaskPenaltyRule2(matrix) +
+          MaskUtil.applyMaskPenaltyRule3(matrix) +
+          MaskUtil.applyMaskPenaltyRule4(matrix);
+      if (penalty < minPenalty) {
+        minPenalty = penalty;
+        bestMaskPattern = maskPattern;
+      }
+    }
+    return bestMaskPattern;
+  }
+
+  @Benchmark
+  public int maskEvaluator() throws WriterException {
+    return MaskEvaluator.chooseMaskPattern(bits, ErrorCorrectionLevel.M, version, matrix);
+  }
+
+}
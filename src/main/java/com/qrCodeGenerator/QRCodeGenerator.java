@@ -2,6 +2,7 @@ package com.qrCodeGenerator;
 
 import com.qrCodeGenerator.util.EncodeHintType;
 import com.qrCodeGenerator.util.MultiFormatWriter;
+import com.qrCodeGenerator.util.Writer;
 import com.qrCodeGenerator.util.WriterException;
 import com.qrCodeGenerator.util.client.j2se.MatrixToImageWriter;
 import com.qrCodeGenerator.util.common.BitMatrix;
@@ -19,7 +20,10 @@ public class QRCodeGenerator {
     private static final String DOT = ".";
 
     public static BitMatrix generateQRCode(String textForGeneratig, int width, int height) {
-        MultiFormatWriter writer = new MultiFormatWriter();
+        return generateQRCode(textForGeneratig, width, height, new MultiFormatWriter());
+    }
+
+    public static BitMatrix generateQRCode(String textForGeneratig, int width, int height, Writer writer) {
         Map<EncodeHintType, ErrorCorrectionLevel> hints = new HashMap<EncodeHintType, ErrorCorrectionLevel>();
         hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.Q);
         BitMatrix qrCode = null;
@@ -0,0 +1,41 @@
+package com.qrCodeGenerator.util;
+
+import com.qrCodeGenerator.util.common.BitMatrix;
+
+
+public final class BatchEncodeResult {
+
+  private final String contents;
+  private final BitMatrix matrix;
+  private final Exception error;
+
+  BatchEncodeResult(String contents, BitMatrix matrix, Exception error) {
+    this.contents = contents;
+    this.matrix = matrix;
+    this.error = error;
+  }
+
+  public String getContents() {
+    return contents;
+  }
+
+
+  public BitMatrix getMatrix() {
+    return matrix;
+  }
+
+
+  public Exception getError() {
+    return error;
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  @Override
+  public String toString() {
+    return isSuccess() ? contents : contents + " (" + error + ')';
+  }
+
+}
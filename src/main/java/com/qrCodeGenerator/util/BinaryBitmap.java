@@ -47,6 +47,11 @@ public final class BinaryBitmap {
   }
 
 
+  public BinaryBitmap duplicate() {
+    return new BinaryBitmap(binarizer.createBinarizer(binarizer.getLuminanceSource()));
+  }
+
+
   public boolean isCropSupported() {
     return binarizer.getLuminanceSource().isCropSupported();
   }
@@ -11,4 +11,7 @@ public enum EncodeHintType {
 
   CHARACTER_SET,
 
+
+  QR_COMPACT,
+
 }
@@ -0,0 +1,86 @@
+package com.qrCodeGenerator.util;
+
+import java.lang.management.ManagementFactory;
+
+
+public final class EncodeInstrumentation {
+
+  private static volatile EncodeListener listener;
+
+  private EncodeInstrumentation() {
+  }
+
+  public static EncodeListener getListener() {
+    return listener;
+  }
+
+
+  public static void setListener(EncodeListener newListener) {
+    listener = newListener;
+  }
+
+
+  public static Probe start() {
+    EncodeListener current = listener;
+    return current == null ? null : new Probe(current);
+  }
+
+
+  public static void mark(Probe probe, EncodeStage stage) {
+    if (probe != null) {
+      probe.mark(stage);
+    }
+  }
+
+
+  public static final class Probe {
+
+    private final EncodeListener listener;
+    private long startNanos;
+    private long startBytes;
+
+    Probe(EncodeListener listener) {
+      this.listener = listener;
+      startBytes = AllocationCounter.getAllocatedBytes();
+      startNanos = System.nanoTime();
+    }
+
+    void mark(EncodeStage stage) {
+      long nanos = System.nanoTime() - startNanos;
+      long bytes = AllocationCounter.getAllocatedBytes();
+      listener.stageCompleted(stage, nanos, bytes < 0 ? -1 : bytes - startBytes);
+      startBytes = AllocationCounter.getAllocatedBytes();
+      startNanos = System.nanoTime();
+    }
+
+  }
+
+
+  private static final class AllocationCounter {
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+      java.lang.management.ThreadMXBean bean;
+      try {
+        bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+          return null;
+        }
+      } catch (LinkageError le) {
+        return null;
+      }
+      com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+      if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+        return null;
+      }
+      return threadBean;
+    }
+
+    static long getAllocatedBytes() {
+      return THREAD_BEAN == null ? -1 : THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+  }
+
+}
@@ -0,0 +1,9 @@
+package com.qrCodeGenerator.util;
+
+
+public interface EncodeListener {
+
+
+  void stageCompleted(EncodeStage stage, long nanos, long allocatedBytes);
+
+}
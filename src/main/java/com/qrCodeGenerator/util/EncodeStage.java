@@ -0,0 +1,22 @@
+package com.qrCodeGenerator.util;
+
+
+public enum EncodeStage {
+
+  MODE_SELECTION,
+
+  DATA_ENCODING,
+
+  ERROR_CORRECTION,
+
+  MASK_SELECTION,
+
+  MATRIX_CONSTRUCTION,
+
+  RENDERING,
+
+  IMAGE_RASTER,
+
+  IMAGE_WRITE,
+
+}
@@ -0,0 +1,147 @@
+package com.qrCodeGenerator.util;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+public final class EncodeStageHistogram implements EncodeListener {
+
+  private static final EncodeStage[] STAGES = EncodeStage.values();
+
+  private static final int NUM_BUCKETS = 64;
+
+  private static final int MIN_EXPORTED_BUCKET = 10;
+  private static final int MAX_EXPORTED_BUCKET = 34;
+
+  private final String name;
+  private final AtomicLongArray buckets = new AtomicLongArray(STAGES.length * NUM_BUCKETS);
+  private final AtomicLongArray counts = new AtomicLongArray(STAGES.length);
+  private final AtomicLongArray totalNanos = new AtomicLongArray(STAGES.length);
+  private final AtomicLongArray allocatedBytes = new AtomicLongArray(STAGES.length);
+
+  public EncodeStageHistogram() {
+    this("barcode_encode_stage");
+  }
+
+  public EncodeStageHistogram(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public void stageCompleted(EncodeStage stage, long nanos, long allocated) {
+    int index = stage.ordinal();
+    buckets.incrementAndGet(index * NUM_BUCKETS + getBucket(nanos));
+    counts.incrementAndGet(index);
+    totalNanos.addAndGet(index, nanos);
+    if (allocated > 0) {
+      allocatedBytes.addAndGet(index, allocated);
+    }
+  }
+
+  public long getCount(EncodeStage stage) {
+    return counts.get(stage.ordinal());
+  }
+
+  public long getTotalNanos(EncodeStage stage) {
+    return totalNanos.get(stage.ordinal());
+  }
+
+  public long getAllocatedBytes(EncodeStage stage) {
+    return allocatedBytes.get(stage.ordinal());
+  }
+
+
+  public long getPercentileNanos(EncodeStage stage, double percentile) {
+    if (percentile < 0.0 || percentile > 100.0) {
+      throw new IllegalArgumentException("Percentile out of range: " + percentile);
+    }
+    int offset = stage.ordinal() * NUM_BUCKETS;
+    long total = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      total += buckets.get(offset + i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * percentile / 100.0);
+    long seen = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      seen += buckets.get(offset + i);
+      if (seen >= rank && seen > 0) {
+        return getUpperBound(i);
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  public void reset() {
+    for (int i = 0; i < buckets.length(); i++) {
+      buckets.set(i, 0);
+    }
+    for (int i = 0; i < STAGES.length; i++) {
+      counts.set(i, 0);
+      totalNanos.set(i, 0);
+      allocatedBytes.set(i, 0);
+    }
+  }
+
+
+  public void writeTo(Appendable out) throws IOException {
+    out.append("# TYPE ").append(name).append("_seconds histogram\n");
+    for (EncodeStage stage : STAGES) {
+      int index = stage.ordinal();
+      long count = counts.get(index);
+      if (count == 0) {
+        continue;
+      }
+      String label = "{stage=\"" + stage.name().toLowerCase(Locale.ENGLISH) + '"';
+      long cumulative = 0;
+      for (int i = 0; i <= MIN_EXPORTED_BUCKET; i++) {
+        cumulative += buckets.get(index * NUM_BUCKETS + i);
+      }
+      for (int i = MIN_EXPORTED_BUCKET; i <= MAX_EXPORTED_BUCKET; i++) {
+        if (i > MIN_EXPORTED_BUCKET) {
+          cumulative += buckets.get(index * NUM_BUCKETS + i);
+        }
+        out.append(name).append("_seconds_bucket").append(label)
+            .append(",le=\"").append(Double.toString(getUpperBound(i) / 1.0e9)).append("\"} ")
+            .append(Long.toString(cumulative)).append('\n');
+      }
+      out.append(name).append("_seconds_bucket").append(label).append(",le=\"+Inf\"} ")
+          .append(Long.toString(count)).append('\n');
+      out.append(name).append("_seconds_sum").append(label).append("} ")
+          .append(Double.toString(totalNanos.get(index) / 1.0e9)).append('\n');
+      out.append(name).append("_seconds_count").append(label).append("} ")
+          .append(Long.toString(count)).append('\n');
+    }
+    out.append("# TYPE ").append(name).append("_allocated_bytes_total counter\n");
+    for (EncodeStage stage : STAGES) {
+      int index = stage.ordinal();
+      if (counts.get(index) > 0) {
+        out.append(name).append("_allocated_bytes_total{stage=\"").append(stage.name().toLowerCase(Locale.ENGLISH)).append("\"} ")
+            .append(Long.toString(allocatedBytes.get(index))).append('\n');
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    try {
+      writeTo(result);
+    } catch (IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+    return result.toString();
+  }
+
+  private static int getBucket(long nanos) {
+    return nanos <= 0 ? 0 : Math.min(NUM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos - 1));
+  }
+
+  private static long getUpperBound(int bucket) {
+    return bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+  }
+
+}
@@ -0,0 +1,85 @@
+package com.qrCodeGenerator.util;
+
+import com.qrCodeGenerator.util.common.BitMatrix;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+
+public final class ModuleGrid {
+
+  private final BitMatrix modules;
+  private final BarcodeFormat format;
+  private final int quietZoneX;
+  private final int quietZoneY;
+  private final int moduleAspectRatio;
+  private final Map<ResultMetadataType,Object> metadata;
+
+  public ModuleGrid(BitMatrix modules,
+                    BarcodeFormat format,
+                    int quietZoneX,
+                    int quietZoneY,
+                    int moduleAspectRatio,
+                    Map<ResultMetadataType,Object> metadata) {
+    if (quietZoneX < 0 || quietZoneY < 0) {
+      throw new IllegalArgumentException("Negative quiet zone is not allowed");
+    }
+    if (moduleAspectRatio < 1) {
+      throw new IllegalArgumentException("Module aspect ratio must be positive: " + moduleAspectRatio);
+    }
+    this.modules = modules.snapshot();
+    this.format = format;
+    this.quietZoneX = quietZoneX;
+    this.quietZoneY = quietZoneY;
+    this.moduleAspectRatio = moduleAspectRatio;
+    Map<ResultMetadataType,Object> copy = new EnumMap<ResultMetadataType,Object>(ResultMetadataType.class);
+    if (metadata != null) {
+      copy.putAll(metadata);
+    }
+    this.metadata = Collections.unmodifiableMap(copy);
+  }
+
+
+  public BitMatrix getModules() {
+    return modules;
+  }
+
+  public BarcodeFormat getFormat() {
+    return format;
+  }
+
+
+  public int getQuietZoneX() {
+    return quietZoneX;
+  }
+
+
+  public int getQuietZoneY() {
+    return quietZoneY;
+  }
+
+
+  public int getModuleAspectRatio() {
+    return moduleAspectRatio;
+  }
+
+  public int getFullWidth() {
+    return modules.getWidth() + 2 * quietZoneX;
+  }
+
+  public int getFullHeight() {
+    return modules.getHeight() + 2 * quietZoneY;
+  }
+
+
+  public Map<ResultMetadataType,Object> getMetadata() {
+    return metadata;
+  }
+
+  @Override
+  public String toString() {
+    return format + " " + modules.getWidth() + 'x' + modules.getHeight() + ' ' + metadata;
+  }
+
+}
@@ -1,5 +1,3 @@
-
-
 package com.qrCodeGenerator.util;
 
 import com.qrCodeGenerator.util.common.BitMatrix;
@@ -9,15 +7,75 @@ import com.qrCodeGenerator.util.oned.Code39Writer;
 import com.qrCodeGenerator.util.oned.EAN13Writer;
 import com.qrCodeGenerator.util.oned.EAN8Writer;
 import com.qrCodeGenerator.util.oned.ITFWriter;
+import com.qrCodeGenerator.util.oned.OneDimensionalCodeWriter;
 import com.qrCodeGenerator.util.oned.UPCAWriter;
 import com.qrCodeGenerator.util.pdf417.encoder.PDF417Writer;
 import com.qrCodeGenerator.util.qrcode.QRCodeWriter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 
 public final class MultiFormatWriter implements Writer {
 
+  private static final int MAX_CHUNK_SIZE = 256;
+
+  private static final int WARM_UP_SIZE = 200;
+
+  private static final Map<BarcodeFormat,Writer> WRITERS = new EnumMap<BarcodeFormat,Writer>(BarcodeFormat.class);
+  private static final Map<BarcodeFormat,String> WARM_UP_CONTENTS =
+      new EnumMap<BarcodeFormat,String>(BarcodeFormat.class);
+
+  static {
+    WRITERS.put(BarcodeFormat.EAN_8, new EAN8Writer());
+    WRITERS.put(BarcodeFormat.EAN_13, new EAN13Writer());
+    WRITERS.put(BarcodeFormat.UPC_A, new UPCAWriter());
+    WRITERS.put(BarcodeFormat.QR_CODE, new QRCodeWriter());
+    WRITERS.put(BarcodeFormat.CODE_39, new Code39Writer());
+    WRITERS.put(BarcodeFormat.CODE_128, new Code128Writer());
+    WRITERS.put(BarcodeFormat.ITF, new ITFWriter());
+    WRITERS.put(BarcodeFormat.PDF_417, new PDF417Writer());
+    WRITERS.put(BarcodeFormat.CODABAR, new CodaBarWriter());
+
+    WARM_UP_CONTENTS.put(BarcodeFormat.EAN_8, "96385074");
+    WARM_UP_CONTENTS.put(BarcodeFormat.EAN_13, "5901234123457");
+    WARM_UP_CONTENTS.put(BarcodeFormat.UPC_A, "036000291452");
+    WARM_UP_CONTENTS.put(BarcodeFormat.QR_CODE, "https://example.com/warm-up?id=0123456789");
+    WARM_UP_CONTENTS.put(BarcodeFormat.CODE_39, "WARM-UP 39");
+    WARM_UP_CONTENTS.put(BarcodeFormat.CODE_128, "Warm-up 128");
+    WARM_UP_CONTENTS.put(BarcodeFormat.ITF, "1234567890");
+    WARM_UP_CONTENTS.put(BarcodeFormat.PDF_417, "PDF417 warm-up 0123456789");
+    WARM_UP_CONTENTS.put(BarcodeFormat.CODABAR, "A123456T");
+  }
+
+
+  public static void warmUp(int iterations) {
+    if (iterations < 0) {
+      throw new IllegalArgumentException("Iterations must not be negative: " + iterations);
+    }
+    for (int i = 0; i < iterations; i++) {
+      for (Map.Entry<BarcodeFormat,String> entry : WARM_UP_CONTENTS.entrySet()) {
+        BarcodeFormat format = entry.getKey();
+        try {
+          getWriter(format).encode(entry.getValue(), format, WARM_UP_SIZE, WARM_UP_SIZE, null);
+        } catch (WriterException we) {
+          throw new IllegalStateException("Warm-up encoding failed for " + format, we);
+        }
+      }
+    }
+  }
+
   public BitMatrix encode(String contents,
                           BarcodeFormat format,
                           int width,
@@ -29,40 +87,246 @@ public final class MultiFormatWriter implements Writer {
                           BarcodeFormat format,
                           int width, int height,
                           Map<EncodeHintType,?> hints) throws WriterException {
+    return getWriter(format).encode(contents, format, width, height, hints);
+  }
+
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) throws WriterException {
+    Writer writer = getWriter(format);
+    if (writer instanceof QRCodeWriter) {
+      return ((QRCodeWriter) writer).encodeModules(contents, format, hints);
+    }
+    if (writer instanceof PDF417Writer) {
+      return ((PDF417Writer) writer).encodeModules(contents, format, hints);
+    }
+    if (writer instanceof UPCAWriter) {
+      return ((UPCAWriter) writer).encodeModules(contents, format, hints);
+    }
+    if (writer instanceof OneDimensionalCodeWriter) {
+      return ((OneDimensionalCodeWriter) writer).encodeModules(contents, format, hints);
+    }
+    throw new IllegalArgumentException("No module grid encoder available for format " + format);
+  }
+
+  public List<BatchEncodeResult> encodeBatch(Iterable<String> contents,
+                                             BarcodeFormat format,
+                                             int width,
+                                             int height,
+                                             Map<EncodeHintType,?> hints) {
+    return encodeBatch(contents, format, width, height, hints, ForkJoinPool.commonPool());
+  }
+
+  public List<BatchEncodeResult> encodeBatch(Stream<String> contents,
+                                             BarcodeFormat format,
+                                             int width,
+                                             int height,
+                                             Map<EncodeHintType,?> hints) {
+    return encodeBatch(contents, format, width, height, hints, ForkJoinPool.commonPool());
+  }
+
+  public List<BatchEncodeResult> encodeBatch(Stream<String> contents,
+                                             BarcodeFormat format,
+                                             int width,
+                                             int height,
+                                             Map<EncodeHintType,?> hints,
+                                             ExecutorService executor) {
+    List<String> items = new ArrayList<String>();
+    Iterator<String> iterator = contents.iterator();
+    while (iterator.hasNext()) {
+      items.add(iterator.next());
+    }
+    return encodeBatch(items, format, width, height, hints, executor);
+  }
+
+
+  public List<BatchEncodeResult> encodeBatch(Iterable<String> contents,
+                                             final BarcodeFormat format,
+                                             final int width,
+                                             final int height,
+                                             final Map<EncodeHintType,?> hints,
+                                             ExecutorService executor) {
+    final Writer writer = getWriter(format);
+    final List<String> items;
+    if (contents instanceof List && contents instanceof RandomAccess) {
+      items = (List<String>) contents;
+    } else {
+      items = new ArrayList<String>(contents instanceof Collection ? ((Collection<String>) contents).size() : 16);
+      for (String item : contents) {
+        items.add(item);
+      }
+    }
+    int size = items.size();
+    int parallelism = executor instanceof ForkJoinPool ?
+        ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+    int chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, (size + 4 * parallelism - 1) / (4 * parallelism)));
+    int chunkCount = (size + chunkSize - 1) / chunkSize;
+
+    BatchEncoder batch = new BatchEncoder(writer, items, format, width, height, hints, chunkSize, chunkCount);
+    List<Future<?>> futures = new ArrayList<Future<?>>();
+    try {
+      for (int i = 1; i < Math.min(parallelism, chunkCount); i++) {
+        futures.add(executor.submit(batch));
+      }
+      batch.encodeChunks();
+      cancel(futures);
+      batch.awaitWorkers();
+    } catch (InterruptedException ie) {
+      batch.stop();
+      cancel(futures);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while encoding batch", ie);
+    } catch (RuntimeException re) {
+      batch.stop();
+      cancel(futures);
+      throw re;
+    }
+    Throwable failure = batch.getFailure();
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    return new ArrayList<BatchEncodeResult>(Arrays.asList(batch.getResults()));
+  }
+
+  private static BatchEncodeResult encodeItem(Writer writer,
+                                              String contents,
+                                              BarcodeFormat format,
+                                              int width,
+                                              int height,
+                                              Map<EncodeHintType,?> hints) {
+    try {
+      return new BatchEncodeResult(contents, writer.encode(contents, format, width, height, hints), null);
+    } catch (WriterException we) {
+      return new BatchEncodeResult(contents, null, we);
+    } catch (RuntimeException re) {
+      return new BatchEncodeResult(contents, null, re);
+    }
+  }
+
+  private static void cancel(List<? extends Future<?>> futures) {
+    for (Future<?> future : futures) {
+      future.cancel(false);
+    }
+  }
+
+  private static Writer getWriter(BarcodeFormat format) {
+    Writer writer = WRITERS.get(format);
+    if (writer == null) {
+      throw new IllegalArgumentException("No encoder available for format " + format);
+    }
+    return writer;
+  }
+
+
+  private static final class BatchEncoder implements Runnable {
+
+    private final Writer writer;
+    private final List<String> items;
+    private final BarcodeFormat format;
+    private final int width;
+    private final int height;
+    private final Map<EncodeHintType,?> hints;
+    private final int chunkSize;
+    private final int chunkCount;
+    private final BatchEncodeResult[] results;
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private Throwable failure;
+    private int activeWorkers;
+    private boolean closed;
+
+    BatchEncoder(Writer writer,
+                 List<String> items,
+                 BarcodeFormat format,
+                 int width,
+                 int height,
+                 Map<EncodeHintType,?> hints,
+                 int chunkSize,
+                 int chunkCount) {
+      this.writer = writer;
+      this.items = items;
+      this.format = format;
+      this.width = width;
+      this.height = height;
+      this.hints = hints;
+      this.chunkSize = chunkSize;
+      this.chunkCount = chunkCount;
+      results = new BatchEncodeResult[items.size()];
+    }
+
+    @Override
+    public void run() {
+      if (!enter()) {
+        return;
+      }
+      try {
+        encodeChunks();
+      } catch (RuntimeException re) {
+        fail(re);
+      } catch (Error e) {
+        fail(e);
+      } finally {
+        exit();
+      }
+    }
+
+
+    void encodeChunks() {
+      int chunk;
+      while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+        int from = chunk * chunkSize;
+        int to = Math.min(results.length, from + chunkSize);
+        for (int i = from; i < to; i++) {
+          results[i] = encodeItem(writer, items.get(i), format, width, height, hints);
+        }
+      }
+    }
+
+    synchronized BatchEncodeResult[] getResults() {
+      return results;
+    }
+
+    synchronized Throwable getFailure() {
+      return failure;
+    }
+
+    void stop() {
+      nextChunk.set(chunkCount);
+    }
+
+    private synchronized boolean enter() {
+      if (closed) {
+        return false;
+      }
+      activeWorkers++;
+      return true;
+    }
+
+    private synchronized void exit() {
+      if (--activeWorkers == 0) {
+        notifyAll();
+      }
+    }
+
+
+    synchronized void awaitWorkers() throws InterruptedException {
+      closed = true;
+      while (activeWorkers > 0) {
+        wait();
+      }
+    }
+
+    private void fail(Throwable t) {
+      stop();
+      synchronized (this) {
+        if (failure == null) {
+          failure = t;
+        }
+      }
+    }
 
-    Writer writer;
-    switch (format) {
-      case EAN_8:
-        writer = new EAN8Writer();
-        break;
-      case EAN_13:
-        writer = new EAN13Writer();
-        break;
-      case UPC_A:
-        writer = new UPCAWriter();
-        break;
-      case QR_CODE:
-        writer = new QRCodeWriter();
-        break;
-      case CODE_39:
-        writer = new Code39Writer();
-        break;
-      case CODE_128:
-        writer = new Code128Writer();
-        break;
-      case ITF:
-        writer = new ITFWriter();
-        break;
-      case PDF_417:
-        writer = new PDF417Writer();
-        break;
-      case CODABAR:
-	      writer = new CodaBarWriter();
-        break;
-      default:
-        throw new IllegalArgumentException("No encoder available for format " + format);
-    }
-    return writer.encode(contents, format, width, height, hints);
   }
 
 }
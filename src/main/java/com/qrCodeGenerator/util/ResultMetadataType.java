@@ -24,6 +24,15 @@ public enum ResultMetadataType {
   SUGGESTED_PRICE ,
 
 
-  POSSIBLE_COUNTRY
+  POSSIBLE_COUNTRY,
+
+
+  SYMBOL_VERSION,
+
+
+  MASK_PATTERN,
+
+
+  ROWS_SCANNED
 
 }
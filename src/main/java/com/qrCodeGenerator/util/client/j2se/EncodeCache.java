@@ -0,0 +1,245 @@
+package com.qrCodeGenerator.util.client.j2se;
+
+import com.qrCodeGenerator.util.BarcodeFormat;
+import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.ModuleGrid;
+import com.qrCodeGenerator.util.MultiFormatWriter;
+import com.qrCodeGenerator.util.Writer;
+import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitMatrix;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+public final class EncodeCache implements Writer {
+
+  private static final int ENTRY_OVERHEAD = 96;
+
+  private static final int KIND_MATRIX = 0;
+  private static final int KIND_GRID = 1;
+  private static final int KIND_IMAGE = 2;
+
+  private final MultiFormatWriter writer;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final LinkedHashMap<Key,Entry> entries;
+
+  private long sizeInBytes;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  public EncodeCache(int maxEntries, long maxBytes) {
+    this(new MultiFormatWriter(), maxEntries, maxBytes);
+  }
+
+  public EncodeCache(MultiFormatWriter writer, int maxEntries, long maxBytes) {
+    if (maxEntries < 1 || maxBytes < 1) {
+      throw new IllegalArgumentException("Cache bounds must be positive");
+    }
+    this.writer = writer;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    entries = new LinkedHashMap<Key,Entry>(16, 0.75f, true);
+  }
+
+  public BitMatrix encode(String contents, BarcodeFormat format, int width, int height)
+      throws WriterException {
+    return encode(contents, format, width, height, null);
+  }
+
+
+  public BitMatrix encode(String contents,
+                          BarcodeFormat format,
+                          int width,
+                          int height,
+                          Map<EncodeHintType,?> hints) throws WriterException {
+    Key key = new Key(KIND_MATRIX, contents, format, width, height, null, hints);
+    Object cached = get(key);
+    if (cached != null) {
+      return ((BitMatrix) cached).clone();
+    }
+    BitMatrix matrix = writer.encode(contents, format, width, height, hints);
+    put(key, matrix.snapshot(), sizeOf(matrix));
+    return matrix;
+  }
+
+
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) throws WriterException {
+    Key key = new Key(KIND_GRID, contents, format, 0, 0, null, hints);
+    Object cached = get(key);
+    if (cached != null) {
+      return (ModuleGrid) cached;
+    }
+    ModuleGrid grid = writer.encodeModules(contents, format, hints);
+    put(key, grid, sizeOf(grid.getModules()));
+    return grid;
+  }
+
+
+  public byte[] encodeImage(String contents,
+                            BarcodeFormat format,
+                            int width,
+                            int height,
+                            Map<EncodeHintType,?> hints,
+                            String imageFormat) throws WriterException, IOException {
+    Key key = new Key(KIND_IMAGE, contents, format, width, height, imageFormat, hints);
+    Object cached = get(key);
+    if (cached != null) {
+      return ((byte[]) cached).clone();
+    }
+    BitMatrix matrix = writer.encode(contents, format, width, height, hints);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MatrixToImageWriter.writeToStream(matrix, imageFormat, out);
+    byte[] image = out.toByteArray();
+    put(key, image.clone(), 16L + image.length);
+    return image;
+  }
+
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    sizeInBytes = 0;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "EncodeCache[entries=" + entries.size() + ", bytes=" + sizeInBytes +
+        ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ']';
+  }
+
+  private synchronized Object get(Key key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    return entry.value;
+  }
+
+  private synchronized void put(Key key, Object value, long valueSize) {
+    long size = ENTRY_OVERHEAD + 2L * key.contents.length() + valueSize;
+    if (size > maxBytes) {
+      return;
+    }
+    Entry previous = entries.put(key, new Entry(value, size));
+    if (previous != null) {
+      sizeInBytes -= previous.size;
+    }
+    sizeInBytes += size;
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (entries.size() > maxEntries || sizeInBytes > maxBytes) {
+      Entry evicted = eldest.next();
+      eldest.remove();
+      sizeInBytes -= evicted.size;
+      evictionCount++;
+    }
+  }
+
+  private static long sizeOf(BitMatrix matrix) {
+    return 48L + 4L * ((matrix.getWidth() + 31) >> 5) * matrix.getHeight();
+  }
+
+
+  private static final class Key {
+
+    private final int kind;
+    private final String contents;
+    private final BarcodeFormat format;
+    private final int width;
+    private final int height;
+    private final String imageFormat;
+    private final Map<EncodeHintType,Object> hints;
+    private final int hashCode;
+
+    Key(int kind,
+        String contents,
+        BarcodeFormat format,
+        int width,
+        int height,
+        String imageFormat,
+        Map<EncodeHintType,?> hints) {
+      this.kind = kind;
+      this.contents = contents;
+      this.format = format;
+      this.width = width;
+      this.height = height;
+      this.imageFormat = imageFormat;
+      this.hints = new EnumMap<EncodeHintType,Object>(EncodeHintType.class);
+      if (hints != null) {
+        this.hints.putAll(hints);
+      }
+      int hash = kind;
+      hash = 31 * hash + contents.hashCode();
+      hash = 31 * hash + (format == null ? 0 : format.hashCode());
+      hash = 31 * hash + width;
+      hash = 31 * hash + height;
+      hash = 31 * hash + (imageFormat == null ? 0 : imageFormat.hashCode());
+      hash = 31 * hash + this.hints.hashCode();
+      hashCode = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hashCode == other.hashCode &&
+          kind == other.kind &&
+          width == other.width &&
+          height == other.height &&
+          format == other.format &&
+          contents.equals(other.contents) &&
+          (imageFormat == null ? other.imageFormat == null : imageFormat.equals(other.imageFormat)) &&
+          hints.equals(other.hints);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+  }
+
+
+  private static final class Entry {
+
+    private final Object value;
+    private final long size;
+
+    Entry(Object value, long size) {
+      this.value = value;
+      this.size = size;
+    }
+
+  }
+
+}
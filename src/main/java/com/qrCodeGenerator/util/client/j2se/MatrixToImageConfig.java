@@ -0,0 +1,50 @@
+package com.qrCodeGenerator.util.client.j2se;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+
+
+public final class MatrixToImageConfig {
+
+  public static final int BLACK = 0xFF000000;
+  public static final int WHITE = 0xFFFFFFFF;
+
+  private final int onColor;
+  private final int offColor;
+
+
+  public MatrixToImageConfig() {
+    this(BLACK, WHITE);
+  }
+
+
+  public MatrixToImageConfig(int onColor, int offColor) {
+    this.onColor = onColor;
+    this.offColor = offColor;
+  }
+
+  public int getPixelOnColor() {
+    return onColor;
+  }
+
+  public int getPixelOffColor() {
+    return offColor;
+  }
+
+
+  int getBufferedImageType() {
+    if ((onColor >>> 24) == 0xFF && (offColor >>> 24) == 0xFF) {
+      return BufferedImage.TYPE_BYTE_BINARY;
+    }
+    return BufferedImage.TYPE_INT_ARGB;
+  }
+
+
+  IndexColorModel getIndexColorModel() {
+    byte[] red = {(byte) (onColor >> 16), (byte) (offColor >> 16)};
+    byte[] green = {(byte) (onColor >> 8), (byte) (offColor >> 8)};
+    byte[] blue = {(byte) onColor, (byte) offColor};
+    return new IndexColorModel(1, 2, red, green, blue);
+  }
+
+}
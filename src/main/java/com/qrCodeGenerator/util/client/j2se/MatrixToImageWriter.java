@@ -2,51 +2,157 @@
 
 package com.qrCodeGenerator.util.client.j2se;
 
+import com.qrCodeGenerator.util.EncodeInstrumentation;
+import com.qrCodeGenerator.util.EncodeStage;
+import com.qrCodeGenerator.util.common.BitArray;
 import com.qrCodeGenerator.util.common.BitMatrix;
 
 import javax.imageio.ImageIO;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.OutputStream;
 import java.io.IOException;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 
 
 public final class MatrixToImageWriter {
 
-  private static final int BLACK = 0xFF000000;
-  private static final int WHITE = 0xFFFFFFFF;
+  private static final MatrixToImageConfig DEFAULT_CONFIG = new MatrixToImageConfig();
+
+  private static final byte[] REVERSED_INVERTED_BYTES = new byte[256];
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      REVERSED_INVERTED_BYTES[i] = (byte) ~(Integer.reverse(i) >>> 24);
+    }
+  }
 
   private MatrixToImageWriter() {}
 
 
   public static BufferedImage toBufferedImage(BitMatrix matrix) {
+    return toBufferedImage(matrix, DEFAULT_CONFIG);
+  }
+
+
+  public static BufferedImage toBufferedImage(BitMatrix matrix, MatrixToImageConfig config) {
+    EncodeInstrumentation.Probe probe = EncodeInstrumentation.start();
     int width = matrix.getWidth();
     int height = matrix.getHeight();
-    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-    for (int x = 0; x < width; x++) {
-      for (int y = 0; y < height; y++) {
-        image.setRGB(x, y, matrix.get(x, y) ? BLACK : WHITE);
+    BufferedImage image;
+    if (config.getBufferedImageType() == BufferedImage.TYPE_BYTE_BINARY) {
+      if (config.getPixelOnColor() == MatrixToImageConfig.BLACK &&
+          config.getPixelOffColor() == MatrixToImageConfig.WHITE) {
+        image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+      } else {
+        image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY, config.getIndexColorModel());
       }
+      renderBinary(matrix, image);
+    } else {
+      image = new BufferedImage(width, height, config.getBufferedImageType());
+      renderColor(matrix, image, config.getPixelOnColor(), config.getPixelOffColor());
     }
+    EncodeInstrumentation.mark(probe, EncodeStage.IMAGE_RASTER);
     return image;
   }
 
 
+  private static void renderBinary(BitMatrix matrix, BufferedImage image) {
+    int width = matrix.getWidth();
+    int height = matrix.getHeight();
+    byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+    int stride = (width + 7) >> 3;
+    BitArray row = new BitArray(width);
+    for (int y = 0; y < height; y++) {
+      row = matrix.getRow(y, row);
+      int[] words = row.getBitArray();
+      int offset = y * stride;
+      for (int i = 0; i < stride; i++) {
+        int bits = (words[i >> 2] >>> ((i & 0x03) << 3)) & 0xFF;
+        pixels[offset + i] = REVERSED_INVERTED_BYTES[bits];
+      }
+    }
+  }
+
+  private static void renderColor(BitMatrix matrix, BufferedImage image, int on, int off) {
+    int width = matrix.getWidth();
+    int height = matrix.getHeight();
+    int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    BitArray row = new BitArray(width);
+    for (int y = 0; y < height; y++) {
+      row = matrix.getRow(y, row);
+      int offset = y * width;
+      for (int x = 0; x < width; x++) {
+        pixels[offset + x] = row.get(x) ? on : off;
+      }
+    }
+  }
+
+
   public static void writeToFile(BitMatrix matrix, String format, File file)
       throws IOException {
-    BufferedImage image = toBufferedImage(matrix);
-    if (!ImageIO.write(image, format, file)) {
+    writeToFile(matrix, format, file, DEFAULT_CONFIG);
+  }
+
+
+  public static void writeToFile(BitMatrix matrix, String format, File file, MatrixToImageConfig config)
+      throws IOException {
+    if (isPng(format)) {
+      EncodeInstrumentation.Probe probe = EncodeInstrumentation.start();
+      OutputStream stream = new FileOutputStream(file);
+      try {
+        MatrixToPngWriter.writeToStream(matrix, 1, config, stream);
+      } finally {
+        stream.close();
+      }
+      EncodeInstrumentation.mark(probe, EncodeStage.IMAGE_WRITE);
+      return;
+    }
+    BufferedImage image = toBufferedImage(matrix, config);
+    EncodeInstrumentation.Probe probe = EncodeInstrumentation.start();
+    if (!ImageIO.write(image, format, file) && !ImageIO.write(toRGB(image), format, file)) {
       throw new IOException("Could not write an image of format " + format + " to " + file);
     }
+    EncodeInstrumentation.mark(probe, EncodeStage.IMAGE_WRITE);
   }
 
 
   public static void writeToStream(BitMatrix matrix, String format, OutputStream stream)
       throws IOException {
-    BufferedImage image = toBufferedImage(matrix);
-    if (!ImageIO.write(image, format, stream)) {
+    writeToStream(matrix, format, stream, DEFAULT_CONFIG);
+  }
+
+
+  public static void writeToStream(BitMatrix matrix, String format, OutputStream stream, MatrixToImageConfig config)
+      throws IOException {
+    if (isPng(format)) {
+      EncodeInstrumentation.Probe probe = EncodeInstrumentation.start();
+      MatrixToPngWriter.writeToStream(matrix, 1, config, stream);
+      EncodeInstrumentation.mark(probe, EncodeStage.IMAGE_WRITE);
+      return;
+    }
+    BufferedImage image = toBufferedImage(matrix, config);
+    EncodeInstrumentation.Probe probe = EncodeInstrumentation.start();
+    if (!ImageIO.write(image, format, stream) && !ImageIO.write(toRGB(image), format, stream)) {
       throw new IOException("Could not write an image of format " + format);
     }
+    EncodeInstrumentation.mark(probe, EncodeStage.IMAGE_WRITE);
+  }
+
+
+  private static boolean isPng(String format) {
+    return "png".equalsIgnoreCase(format);
+  }
+
+  private static BufferedImage toRGB(BufferedImage image) {
+    if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+      return image;
+    }
+    BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+    rgb.getGraphics().drawImage(image, 0, 0, null);
+    return rgb;
   }
 
 }
@@ -0,0 +1,246 @@
+package com.qrCodeGenerator.util.client.j2se;
+
+import com.qrCodeGenerator.util.ModuleGrid;
+import com.qrCodeGenerator.util.common.BitArray;
+import com.qrCodeGenerator.util.common.BitMatrix;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+
+public final class MatrixToPngWriter {
+
+  private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+  private static final int IDAT_CHUNK_SIZE = 1 << 15;
+
+  private static final int COLOR_TYPE_GRAYSCALE = 0;
+  private static final int COLOR_TYPE_PALETTE = 3;
+
+  private static final int FILTER_NONE = 0;
+  private static final int FILTER_UP = 2;
+
+  private MatrixToPngWriter() {}
+
+
+  public static void writeToStream(BitMatrix matrix, OutputStream stream) throws IOException {
+    writeToStream(matrix, 1, new MatrixToImageConfig(), stream);
+  }
+
+
+  public static void writeToStream(BitMatrix matrix, int scale, OutputStream stream) throws IOException {
+    writeToStream(matrix, scale, new MatrixToImageConfig(), stream);
+  }
+
+
+  public static void writeToChannel(BitMatrix matrix, int scale, MatrixToImageConfig config,
+                                    WritableByteChannel channel) throws IOException {
+    writeToStream(matrix, scale, config, Channels.newOutputStream(channel));
+  }
+
+
+  public static void writeToStream(BitMatrix matrix, int scale, MatrixToImageConfig config,
+                                   OutputStream stream) throws IOException {
+    write(matrix, 0, 0, scale, scale, config, stream);
+  }
+
+
+  public static void writeToStream(ModuleGrid grid, int scale, MatrixToImageConfig config,
+                                   OutputStream stream) throws IOException {
+    write(grid.getModules(), grid.getQuietZoneX(), grid.getQuietZoneY(),
+        scale, scale * grid.getModuleAspectRatio(), config, stream);
+  }
+
+
+  public static void writeToChannel(ModuleGrid grid, int scale, MatrixToImageConfig config,
+                                    WritableByteChannel channel) throws IOException {
+    writeToStream(grid, scale, config, Channels.newOutputStream(channel));
+  }
+
+
+  private static void write(BitMatrix matrix,
+                            int quietZoneX,
+                            int quietZoneY,
+                            int scaleX,
+                            int scaleY,
+                            MatrixToImageConfig config,
+                            OutputStream stream) throws IOException {
+    if (scaleX < 1 || scaleY < 1) {
+      throw new IllegalArgumentException("Scale must be positive: " + scaleX + 'x' + scaleY);
+    }
+    long fullWidth = (long) (matrix.getWidth() + 2 * quietZoneX) * scaleX;
+    long fullHeight = (long) (matrix.getHeight() + 2 * quietZoneY) * scaleY;
+    if (fullWidth > Integer.MAX_VALUE - 7 || fullHeight > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Scaled image is too large");
+    }
+    int width = (int) fullWidth;
+    int height = (int) fullHeight;
+
+    stream.write(SIGNATURE);
+    boolean grayscale = config.getPixelOnColor() == MatrixToImageConfig.BLACK &&
+        config.getPixelOffColor() == MatrixToImageConfig.WHITE;
+    byte[] header = new byte[13];
+    writeInt(header, 0, width);
+    writeInt(header, 4, height);
+    header[8] = 1;
+    header[9] = (byte) (grayscale ? COLOR_TYPE_GRAYSCALE : COLOR_TYPE_PALETTE);
+    writeChunk(stream, "IHDR", header, header.length);
+    if (!grayscale) {
+      writePalette(stream, config.getPixelOnColor(), config.getPixelOffColor());
+    }
+
+    int stride = (width + 7) >> 3;
+    byte[] scanline = new byte[stride + 1];
+    byte[] repeated = new byte[stride + 1];
+    repeated[0] = FILTER_UP;
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      IdatOutputStream idat = new IdatOutputStream(stream);
+      DeflaterOutputStream out = new DeflaterOutputStream(idat, deflater, IDAT_CHUNK_SIZE);
+      BitArray row = new BitArray(matrix.getWidth());
+      if (quietZoneY > 0) {
+        clearScanline(scanline);
+        out.write(scanline);
+        for (int i = 1; i < quietZoneY * scaleY; i++) {
+          out.write(repeated);
+        }
+      }
+      for (int y = 0; y < matrix.getHeight(); y++) {
+        row = matrix.getRow(y, row);
+        scaleRow(row, matrix.getWidth(), quietZoneX * scaleX, scaleX, scanline);
+        out.write(scanline);
+        for (int i = 1; i < scaleY; i++) {
+          out.write(repeated);
+        }
+      }
+      if (quietZoneY > 0) {
+        clearScanline(scanline);
+        out.write(scanline);
+        for (int i = 1; i < quietZoneY * scaleY; i++) {
+          out.write(repeated);
+        }
+      }
+      out.finish();
+      idat.flushChunk();
+    } finally {
+      deflater.end();
+    }
+    writeChunk(stream, "IEND", new byte[0], 0);
+    stream.flush();
+  }
+
+
+  private static void clearScanline(byte[] scanline) {
+    scanline[0] = FILTER_NONE;
+    for (int i = 1; i < scanline.length; i++) {
+      scanline[i] = (byte) 0xFF;
+    }
+  }
+
+  private static void scaleRow(BitArray row, int width, int offset, int scale, byte[] scanline) {
+    clearScanline(scanline);
+    int x = row.getNextSet(0);
+    while (x < width) {
+      int end = row.getNextUnset(x);
+      if (end > width) {
+        end = width;
+      }
+      clearBits(scanline, offset + x * scale, offset + end * scale);
+      x = end < width ? row.getNextSet(end) : width;
+    }
+  }
+
+  private static void clearBits(byte[] scanline, int from, int to) {
+    for (int bit = from; bit < to; bit++) {
+      if ((bit & 0x07) == 0 && bit + 8 <= to) {
+        scanline[1 + (bit >> 3)] = 0;
+        bit += 7;
+      } else {
+        scanline[1 + (bit >> 3)] &= ~(0x80 >>> (bit & 0x07));
+      }
+    }
+  }
+
+  private static void writePalette(OutputStream stream, int onColor, int offColor) throws IOException {
+    byte[] palette = {
+        (byte) (onColor >> 16), (byte) (onColor >> 8), (byte) onColor,
+        (byte) (offColor >> 16), (byte) (offColor >> 8), (byte) offColor,
+    };
+    writeChunk(stream, "PLTE", palette, palette.length);
+    if ((onColor >>> 24) != 0xFF || (offColor >>> 24) != 0xFF) {
+      byte[] alpha = {(byte) (onColor >>> 24), (byte) (offColor >>> 24)};
+      writeChunk(stream, "tRNS", alpha, alpha.length);
+    }
+  }
+
+  private static void writeChunk(OutputStream stream, String type, byte[] data, int length) throws IOException {
+    byte[] prefix = new byte[8];
+    writeInt(prefix, 0, length);
+    for (int i = 0; i < 4; i++) {
+      prefix[4 + i] = (byte) type.charAt(i);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(prefix, 4, 4);
+    crc.update(data, 0, length);
+    byte[] suffix = new byte[4];
+    writeInt(suffix, 0, (int) crc.getValue());
+    stream.write(prefix);
+    stream.write(data, 0, length);
+    stream.write(suffix);
+  }
+
+  private static void writeInt(byte[] bytes, int offset, int value) {
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+  }
+
+
+  private static final class IdatOutputStream extends OutputStream {
+
+    private final OutputStream stream;
+    private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+    private int count;
+
+    IdatOutputStream(OutputStream stream) {
+      this.stream = stream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (count == buffer.length) {
+        flushChunk();
+      }
+      buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        if (count == buffer.length) {
+          flushChunk();
+        }
+        int n = Math.min(len, buffer.length - count);
+        System.arraycopy(b, off, buffer, count, n);
+        count += n;
+        off += n;
+        len -= n;
+      }
+    }
+
+    void flushChunk() throws IOException {
+      if (count > 0) {
+        writeChunk(stream, "IDAT", buffer, count);
+        count = 0;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,166 @@
+package com.qrCodeGenerator.util.client.vector;
+
+import com.qrCodeGenerator.util.ModuleGrid;
+import com.qrCodeGenerator.util.client.j2se.MatrixToImageConfig;
+import com.qrCodeGenerator.util.common.BitMatrix;
+import com.qrCodeGenerator.util.qrcode.encoder.QRCode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.zip.Deflater;
+
+
+public final class MatrixToPDFWriter {
+
+  private static final Charset ASCII = Charset.forName("US-ASCII");
+
+  private static final MatrixToImageConfig DEFAULT_CONFIG = new MatrixToImageConfig();
+
+  private MatrixToPDFWriter() {}
+
+
+  public static byte[] toPDF(BitMatrix modules, int quietZone, int moduleSize) {
+    return toPDF(modules, quietZone, moduleSize, moduleSize, DEFAULT_CONFIG);
+  }
+
+
+  public static byte[] toPDF(BitMatrix modules,
+                             int quietZone,
+                             int moduleWidth,
+                             int moduleHeight,
+                             MatrixToImageConfig config) {
+    return toPDF(VectorSymbol.fromModules(modules, quietZone, quietZone, moduleWidth, moduleHeight), config);
+  }
+
+
+  public static byte[] toPDF(ModuleGrid grid, int moduleSize) {
+    return toPDF(grid, moduleSize, moduleSize * grid.getModuleAspectRatio(), DEFAULT_CONFIG);
+  }
+
+
+  public static byte[] toPDF(ModuleGrid grid, int moduleWidth, int moduleHeight, MatrixToImageConfig config) {
+    return toPDF(VectorSymbol.fromGrid(grid, moduleWidth, moduleHeight), config);
+  }
+
+
+  public static byte[] toPDF(QRCode code, int moduleSize) {
+    return toPDF(VectorSymbol.fromQRCode(code, moduleSize), DEFAULT_CONFIG);
+  }
+
+
+  public static byte[] toPDF(byte[] code, int quietZone, int moduleWidth, int barHeight) {
+    return toPDF(VectorSymbol.fromPattern(code, quietZone, moduleWidth, barHeight), DEFAULT_CONFIG);
+  }
+
+
+  public static void writeToStream(BitMatrix modules,
+                                   int quietZone,
+                                   int moduleWidth,
+                                   int moduleHeight,
+                                   MatrixToImageConfig config,
+                                   OutputStream stream) throws IOException {
+    stream.write(toPDF(modules, quietZone, moduleWidth, moduleHeight, config));
+  }
+
+
+  public static void writeToStream(QRCode code, int moduleSize, OutputStream stream) throws IOException {
+    stream.write(toPDF(code, moduleSize));
+  }
+
+
+  public static void writeToStream(byte[] code, int quietZone, int moduleWidth, int barHeight,
+                                   OutputStream stream) throws IOException {
+    stream.write(toPDF(code, quietZone, moduleWidth, barHeight));
+  }
+
+
+  private static byte[] toPDF(VectorSymbol symbol, MatrixToImageConfig config) {
+    byte[] content = deflate(buildContentStream(symbol, config));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream(content.length + 512);
+    int[] offsets = new int[4];
+    write(out, "%PDF-1.4\n");
+    offsets[0] = out.size();
+    write(out, "1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+    offsets[1] = out.size();
+    write(out, "2 0 obj\n<< /Type /Pages /Kids [3 0 R] /Count 1 >>\nendobj\n");
+    offsets[2] = out.size();
+    write(out, "3 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + symbol.getWidth() + ' ' +
+        symbol.getHeight() + "] /Contents 4 0 R /Resources << >> >>\nendobj\n");
+    offsets[3] = out.size();
+    write(out, "4 0 obj\n<< /Length " + content.length + " /Filter /FlateDecode >>\nstream\n");
+    out.write(content, 0, content.length);
+    write(out, "\nendstream\nendobj\n");
+
+    int xref = out.size();
+    StringBuilder trailer = new StringBuilder(160);
+    trailer.append("xref\n0 5\n0000000000 65535 f \n");
+    for (int offset : offsets) {
+      String digits = Integer.toString(offset);
+      for (int i = digits.length(); i < 10; i++) {
+        trailer.append('0');
+      }
+      trailer.append(digits).append(" 00000 n \n");
+    }
+    trailer.append("trailer\n<< /Size 5 /Root 1 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+    write(out, trailer.toString());
+    return out.toByteArray();
+  }
+
+  private static byte[] buildContentStream(VectorSymbol symbol, MatrixToImageConfig config) {
+    int height = symbol.getHeight();
+    int numRectangles = symbol.getNumRectangles();
+    StringBuilder content = new StringBuilder(64 + 24 * numRectangles);
+    int offColor = config.getPixelOffColor();
+    if ((offColor >>> 24) != 0) {
+      appendColor(content, offColor);
+      content.append("0 0 ").append(symbol.getWidth()).append(' ').append(height).append(" re f\n");
+    }
+    if (numRectangles > 0) {
+      appendColor(content, config.getPixelOnColor());
+      for (int i = 0; i < numRectangles; i++) {
+        int rectangleHeight = symbol.getRectangleHeight(i);
+        content.append(symbol.getX(i)).append(' ')
+            .append(height - symbol.getY(i) - rectangleHeight).append(' ')
+            .append(symbol.getRectangleWidth(i)).append(' ')
+            .append(rectangleHeight).append(" re\n");
+      }
+      content.append("f\n");
+    }
+    return content.toString().getBytes(ASCII);
+  }
+
+  private static void appendColor(StringBuilder content, int argb) {
+    MatrixToSVGWriter.appendUnitFraction(content, (argb >> 16) & 0xFF);
+    content.append(' ');
+    MatrixToSVGWriter.appendUnitFraction(content, (argb >> 8) & 0xFF);
+    content.append(' ');
+    MatrixToSVGWriter.appendUnitFraction(content, argb & 0xFF);
+    content.append(" rg\n");
+  }
+
+  private static byte[] deflate(byte[] data) {
+    Deflater deflater = new Deflater();
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+      byte[] buffer = new byte[8192];
+      while (!deflater.finished()) {
+        int n = deflater.deflate(buffer);
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static void write(ByteArrayOutputStream out, String text) {
+    byte[] bytes = text.getBytes(ASCII);
+    out.write(bytes, 0, bytes.length);
+  }
+
+}
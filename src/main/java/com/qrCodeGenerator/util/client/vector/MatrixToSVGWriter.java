@@ -0,0 +1,142 @@
+package com.qrCodeGenerator.util.client.vector;
+
+import com.qrCodeGenerator.util.ModuleGrid;
+import com.qrCodeGenerator.util.client.j2se.MatrixToImageConfig;
+import com.qrCodeGenerator.util.common.BitMatrix;
+import com.qrCodeGenerator.util.qrcode.encoder.QRCode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+
+public final class MatrixToSVGWriter {
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static final MatrixToImageConfig DEFAULT_CONFIG = new MatrixToImageConfig();
+
+  private MatrixToSVGWriter() {}
+
+
+  public static String toSVG(BitMatrix modules, int quietZone, int moduleSize) {
+    return toSVG(modules, quietZone, moduleSize, moduleSize, DEFAULT_CONFIG);
+  }
+
+
+  public static String toSVG(BitMatrix modules,
+                             int quietZone,
+                             int moduleWidth,
+                             int moduleHeight,
+                             MatrixToImageConfig config) {
+    return toSVG(VectorSymbol.fromModules(modules, quietZone, quietZone, moduleWidth, moduleHeight), config);
+  }
+
+
+  public static String toSVG(ModuleGrid grid, int moduleSize) {
+    return toSVG(grid, moduleSize, moduleSize * grid.getModuleAspectRatio(), DEFAULT_CONFIG);
+  }
+
+
+  public static String toSVG(ModuleGrid grid, int moduleWidth, int moduleHeight, MatrixToImageConfig config) {
+    return toSVG(VectorSymbol.fromGrid(grid, moduleWidth, moduleHeight), config);
+  }
+
+
+  public static String toSVG(QRCode code, int moduleSize) {
+    return toSVG(VectorSymbol.fromQRCode(code, moduleSize), DEFAULT_CONFIG);
+  }
+
+
+  public static String toSVG(byte[] code, int quietZone, int moduleWidth, int barHeight) {
+    return toSVG(VectorSymbol.fromPattern(code, quietZone, moduleWidth, barHeight), DEFAULT_CONFIG);
+  }
+
+
+  public static void writeToStream(BitMatrix modules,
+                                   int quietZone,
+                                   int moduleWidth,
+                                   int moduleHeight,
+                                   MatrixToImageConfig config,
+                                   OutputStream stream) throws IOException {
+    stream.write(toSVG(modules, quietZone, moduleWidth, moduleHeight, config).getBytes(UTF8));
+  }
+
+
+  public static void writeToStream(QRCode code, int moduleSize, OutputStream stream) throws IOException {
+    stream.write(toSVG(code, moduleSize).getBytes(UTF8));
+  }
+
+
+  public static void writeToStream(byte[] code, int quietZone, int moduleWidth, int barHeight,
+                                   OutputStream stream) throws IOException {
+    stream.write(toSVG(code, quietZone, moduleWidth, barHeight).getBytes(UTF8));
+  }
+
+
+  private static String toSVG(VectorSymbol symbol, MatrixToImageConfig config) {
+    int numRectangles = symbol.getNumRectangles();
+    StringBuilder result = new StringBuilder(256 + 24 * numRectangles);
+    result.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    result.append("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\"");
+    result.append(" width=\"").append(symbol.getWidth()).append('"');
+    result.append(" height=\"").append(symbol.getHeight()).append('"');
+    result.append(" viewBox=\"0 0 ").append(symbol.getWidth()).append(' ').append(symbol.getHeight());
+    result.append("\" shape-rendering=\"crispEdges\">\n");
+    int offColor = config.getPixelOffColor();
+    if ((offColor >>> 24) != 0) {
+      result.append("<rect width=\"100%\" height=\"100%\"");
+      appendFill(result, offColor);
+      result.append("/>\n");
+    }
+    if (numRectangles > 0) {
+      result.append("<path");
+      appendFill(result, config.getPixelOnColor());
+      result.append(" d=\"");
+      for (int i = 0; i < numRectangles; i++) {
+        int width = symbol.getRectangleWidth(i);
+        result.append('M').append(symbol.getX(i)).append(' ').append(symbol.getY(i));
+        result.append('h').append(width);
+        result.append('v').append(symbol.getRectangleHeight(i));
+        result.append("h-").append(width);
+        result.append('z');
+      }
+      result.append("\"/>\n");
+    }
+    result.append("</svg>\n");
+    return result.toString();
+  }
+
+  private static void appendFill(StringBuilder result, int argb) {
+    result.append(" fill=\"#");
+    String hex = Integer.toHexString(argb & 0xFFFFFF);
+    for (int i = hex.length(); i < 6; i++) {
+      result.append('0');
+    }
+    result.append(hex).append('"');
+    int alpha = argb >>> 24;
+    if (alpha != 0xFF) {
+      result.append(" fill-opacity=\"");
+      appendUnitFraction(result, alpha);
+      result.append('"');
+    }
+  }
+
+
+  static void appendUnitFraction(StringBuilder result, int component) {
+    int thousandths = (component * 1000 + 127) / 255;
+    if (thousandths >= 1000) {
+      result.append('1');
+      return;
+    }
+    result.append("0.");
+    if (thousandths < 100) {
+      result.append('0');
+    }
+    if (thousandths < 10) {
+      result.append('0');
+    }
+    result.append(thousandths);
+  }
+
+}
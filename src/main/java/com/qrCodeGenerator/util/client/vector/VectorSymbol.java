@@ -0,0 +1,149 @@
+package com.qrCodeGenerator.util.client.vector;
+
+import com.qrCodeGenerator.util.ModuleGrid;
+import com.qrCodeGenerator.util.common.BitArray;
+import com.qrCodeGenerator.util.common.BitMatrix;
+import com.qrCodeGenerator.util.qrcode.encoder.ModuleMatrix;
+import com.qrCodeGenerator.util.qrcode.encoder.QRCode;
+
+
+final class VectorSymbol {
+
+  private static final int QR_QUIET_ZONE_SIZE = 4;
+
+  private final int width;
+  private final int height;
+  private final int[] rectangles;
+  private final int numRectangles;
+
+  private VectorSymbol(int width, int height, int[] rectangles, int numRectangles) {
+    this.width = width;
+    this.height = height;
+    this.rectangles = rectangles;
+    this.numRectangles = numRectangles;
+  }
+
+  int getWidth() {
+    return width;
+  }
+
+  int getHeight() {
+    return height;
+  }
+
+  int getNumRectangles() {
+    return numRectangles;
+  }
+
+
+  int getX(int i) {
+    return rectangles[i << 2];
+  }
+
+  int getY(int i) {
+    return rectangles[(i << 2) + 1];
+  }
+
+  int getRectangleWidth(int i) {
+    return rectangles[(i << 2) + 2];
+  }
+
+  int getRectangleHeight(int i) {
+    return rectangles[(i << 2) + 3];
+  }
+
+
+  static VectorSymbol fromQRCode(QRCode code, int moduleSize) {
+    ModuleMatrix input = code.getModuleMatrix();
+    if (input == null) {
+      throw new IllegalStateException();
+    }
+    BitMatrix modules = new BitMatrix(input.getWidth(), input.getHeight());
+    for (int y = 0; y < input.getHeight(); y++) {
+      for (int x = 0; x < input.getWidth(); x++) {
+        if (input.get(x, y)) {
+          modules.set(x, y);
+        }
+      }
+    }
+    return fromModules(modules, QR_QUIET_ZONE_SIZE, QR_QUIET_ZONE_SIZE, moduleSize, moduleSize);
+  }
+
+
+  static VectorSymbol fromGrid(ModuleGrid grid, int moduleWidth, int moduleHeight) {
+    return fromModules(grid.getModules(), grid.getQuietZoneX(), grid.getQuietZoneY(), moduleWidth, moduleHeight);
+  }
+
+
+  static VectorSymbol fromPattern(byte[] code, int quietZone, int moduleWidth, int barHeight) {
+    if (code.length == 0) {
+      throw new IllegalArgumentException("Found empty pattern");
+    }
+    BitMatrix modules = new BitMatrix(code.length, 1);
+    for (int x = 0; x < code.length; x++) {
+      if (code[x] == 1) {
+        modules.set(x, 0);
+      }
+    }
+    return fromModules(modules, quietZone, 0, moduleWidth, barHeight);
+  }
+
+
+  static VectorSymbol fromModules(BitMatrix modules,
+                                  int quietZoneX,
+                                  int quietZoneY,
+                                  int moduleWidth,
+                                  int moduleHeight) {
+    if (moduleWidth < 1 || moduleHeight < 1) {
+      throw new IllegalArgumentException("Module size must be positive: " + moduleWidth + 'x' + moduleHeight);
+    }
+    if (quietZoneX < 0 || quietZoneY < 0) {
+      throw new IllegalArgumentException("Negative quiet zone is not allowed");
+    }
+    int inputWidth = modules.getWidth();
+    int inputHeight = modules.getHeight();
+
+    int[] openRectangle = new int[inputWidth];
+    int[] rectangles = new int[64];
+    int count = 0;
+    BitArray row = new BitArray(inputWidth);
+    for (int y = 0; y < inputHeight; y++) {
+      row = modules.getRow(y, row);
+      int x = row.getNextSet(0);
+      while (x < inputWidth) {
+        int end = Math.min(row.getNextUnset(x), inputWidth);
+        int open = openRectangle[x] - 1;
+        if (open >= 0 &&
+            rectangles[(open << 2) + 2] == end - x &&
+            rectangles[(open << 2) + 1] + rectangles[(open << 2) + 3] == y) {
+          rectangles[(open << 2) + 3]++;
+        } else {
+          if ((count << 2) == rectangles.length) {
+            int[] grown = new int[rectangles.length << 1];
+            System.arraycopy(rectangles, 0, grown, 0, rectangles.length);
+            rectangles = grown;
+          }
+          rectangles[count << 2] = x;
+          rectangles[(count << 2) + 1] = y;
+          rectangles[(count << 2) + 2] = end - x;
+          rectangles[(count << 2) + 3] = 1;
+          count++;
+          openRectangle[x] = count;
+        }
+        x = end < inputWidth ? row.getNextSet(end) : inputWidth;
+      }
+    }
+
+    for (int i = 0; i < count; i++) {
+      int offset = i << 2;
+      rectangles[offset] = (rectangles[offset] + quietZoneX) * moduleWidth;
+      rectangles[offset + 1] = (rectangles[offset + 1] + quietZoneY) * moduleHeight;
+      rectangles[offset + 2] *= moduleWidth;
+      rectangles[offset + 3] *= moduleHeight;
+    }
+    int width = (inputWidth + 2 * quietZoneX) * moduleWidth;
+    int height = (inputHeight + 2 * quietZoneY) * moduleHeight;
+    return new VectorSymbol(width, height, rectangles, count);
+  }
+
+}
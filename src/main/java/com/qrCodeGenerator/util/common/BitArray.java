@@ -28,7 +28,7 @@ public final class BitArray {
 
   private void ensureCapacity(int size) {
     if (size > bits.length << 5) {
-      int[] newBits = makeArray(size);
+      int[] newBits = makeArray(Math.max(size, bits.length << 6));
       System.arraycopy(bits, 0, newBits, 0, bits.length);
       this.bits = newBits;
     }
@@ -106,15 +106,7 @@ public final class BitArray {
     for (int i = firstInt; i <= lastInt; i++) {
       int firstBit = i > firstInt ? 0 : start & 0x1F;
       int lastBit = i < lastInt ? 31 : end & 0x1F;
-      int mask;
-      if (firstBit == 0 && lastBit == 31) {
-        mask = -1;
-      } else {
-        mask = 0;
-        for (int j = firstBit; j <= lastBit; j++) {
-          mask |= 1 << j;
-        }
-      }
+      int mask = (2 << lastBit) - (1 << firstBit);
       bits[i] |= mask;
     }
   }
@@ -141,17 +133,7 @@ public final class BitArray {
     for (int i = firstInt; i <= lastInt; i++) {
       int firstBit = i > firstInt ? 0 : start & 0x1F;
       int lastBit = i < lastInt ? 31 : end & 0x1F;
-      int mask;
-      if (firstBit == 0 && lastBit == 31) {
-        mask = -1;
-      } else {
-        mask = 0;
-        for (int j = firstBit; j <= lastBit; j++) {
-          mask |= 1 << j;
-        }
-      }
-
-
+      int mask = (2 << lastBit) - (1 << firstBit);
 
       if ((bits[i] & mask) != (value ? mask : 0)) {
         return false;
@@ -173,20 +155,37 @@ public final class BitArray {
     if (numBits < 0 || numBits > 32) {
       throw new IllegalArgumentException("Num bits must be between 0 and 32");
     }
-    ensureCapacity(size + numBits);
-    for (int numBitsLeft = numBits; numBitsLeft > 0; numBitsLeft--) {
-      appendBit(((value >> (numBitsLeft - 1)) & 0x01) == 1);
+    if (numBits == 0) {
+      return;
     }
+    ensureCapacity(size + numBits);
+    appendWord(Integer.reverse(value) >>> (32 - numBits), numBits);
   }
 
   public void appendBitArray(BitArray other) {
     int otherSize = other.size;
     ensureCapacity(size + otherSize);
-    for (int i = 0; i < otherSize; i++) {
-      appendBit(other.get(i));
+    int[] otherBits = other.bits;
+    int fullWords = otherSize >> 5;
+    for (int i = 0; i < fullWords; i++) {
+      appendWord(otherBits[i], 32);
+    }
+    int remaining = otherSize & 0x1F;
+    if (remaining > 0) {
+      appendWord(otherBits[fullWords] & ((1 << remaining) - 1), remaining);
     }
   }
 
+  private void appendWord(int value, int numBits) {
+    int index = size >> 5;
+    int shift = size & 0x1F;
+    bits[index] |= value << shift;
+    if (shift + numBits > 32) {
+      bits[index + 1] |= value >>> (32 - shift);
+    }
+    size += numBits;
+  }
+
   public void xor(BitArray other) {
     if (bits.length != other.bits.length) {
       throw new IllegalArgumentException("Sizes don't match");
@@ -201,14 +200,14 @@ public final class BitArray {
 
   public void toBytes(int bitOffset, byte[] array, int offset, int numBytes) {
     for (int i = 0; i < numBytes; i++) {
-      int theByte = 0;
-      for (int j = 0; j < 8; j++) {
-        if (get(bitOffset)) {
-          theByte |= 1 << (7 - j);
-        }
-        bitOffset++;
+      int index = bitOffset >> 5;
+      int shift = bitOffset & 0x1F;
+      int theBits = bits[index] >>> shift;
+      if (shift > 24) {
+        theBits |= bits[index + 1] << (32 - shift);
       }
-      array[offset + i] = (byte) theByte;
+      array[offset + i] = (byte) (Integer.reverse(theBits) >>> 24);
+      bitOffset += 8;
     }
   }
 
@@ -221,10 +220,21 @@ public final class BitArray {
   public void reverse() {
     int[] newBits = new int[bits.length];
     int size = this.size;
-    for (int i = 0; i < size; i++) {
-      if (get(size - i - 1)) {
-        newBits[i >> 5] |= 1 << (i & 0x1F);
+    if (size == 0) {
+      bits = newBits;
+      return;
+    }
+    int last = (size - 1) >> 5;
+    int padding = ((last + 1) << 5) - size;
+    for (int i = 0; i <= last; i++) {
+      newBits[last - i] = Integer.reverse(bits[i]);
+    }
+    if (padding > 0) {
+      newBits[0] &= -1 << padding;
+      for (int i = 0; i < last; i++) {
+        newBits[i] = (newBits[i] >>> padding) | (newBits[i + 1] << (32 - padding));
       }
+      newBits[last] >>>= padding;
     }
     bits = newBits;
   }
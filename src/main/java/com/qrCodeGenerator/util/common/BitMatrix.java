@@ -1,14 +1,15 @@
-
-
 package com.qrCodeGenerator.util.common;
 
+import java.util.Arrays;
 
-public final class BitMatrix {
+public class BitMatrix implements Cloneable {
 
   private final int width;
   private final int height;
   private final int rowSize;
-  private final int[] bits;
+  private int rowStride;
+  private int[] bits;
+  private boolean shared;
 
 
   public BitMatrix(int dimension) {
@@ -22,29 +23,61 @@ public final class BitMatrix {
     this.width = width;
     this.height = height;
     this.rowSize = (width + 31) >> 5;
+    rowStride = rowSize;
     bits = new int[rowSize * height];
   }
 
+  private BitMatrix(int width, int height, int rowSize, int rowStride, int[] bits, boolean shared) {
+    this.width = width;
+    this.height = height;
+    this.rowSize = rowSize;
+    this.rowStride = rowStride;
+    this.bits = bits;
+    this.shared = shared;
+  }
+
+
+  public static BitMatrix fromRow(BitArray row, int height) {
+    int width = row.getSize();
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("Both dimensions must be greater than 0");
+    }
+    int rowSize = (width + 31) >> 5;
+    return new BitMatrix(width, height, rowSize, 0, Arrays.copyOf(row.getBitArray(), rowSize), true);
+  }
+
 
   public boolean get(int x, int y) {
-    int offset = y * rowSize + (x >> 5);
+    int offset = y * rowStride + (x >> 5);
     return ((bits[offset] >>> (x & 0x1f)) & 1) != 0;
   }
 
 
   public void set(int x, int y) {
+    if (shared) {
+      unshare();
+    }
     int offset = y * rowSize + (x >> 5);
     bits[offset] |= 1 << (x & 0x1f);
   }
 
 
   public void flip(int x, int y) {
+    if (shared) {
+      unshare();
+    }
     int offset = y * rowSize + (x >> 5);
     bits[offset] ^= 1 << (x & 0x1f);
   }
 
 
   public void clear() {
+    if (shared) {
+      bits = new int[rowSize * height];
+      rowStride = rowSize;
+      shared = false;
+      return;
+    }
     int max = bits.length;
     for (int i = 0; i < max; i++) {
       bits[i] = 0;
@@ -64,10 +97,24 @@ public final class BitMatrix {
     if (bottom > this.height || right > this.width) {
       throw new IllegalArgumentException("The region must fit inside the matrix");
     }
+    if (shared) {
+      unshare();
+    }
+    int firstWord = left >> 5;
+    int lastWord = (right - 1) >> 5;
+    int firstMask = -1 << (left & 0x1f);
+    int lastMask = -1 >>> (31 - ((right - 1) & 0x1f));
+    if (firstWord == lastWord) {
+      firstMask &= lastMask;
+    }
     for (int y = top; y < bottom; y++) {
       int offset = y * rowSize;
-      for (int x = left; x < right; x++) {
-        bits[offset + (x >> 5)] |= 1 << (x & 0x1f);
+      bits[offset + firstWord] |= firstMask;
+      if (firstWord != lastWord) {
+        for (int i = firstWord + 1; i < lastWord; i++) {
+          bits[offset + i] = -1;
+        }
+        bits[offset + lastWord] |= lastMask;
       }
     }
   }
@@ -77,7 +124,7 @@ public final class BitMatrix {
     if (row == null || row.getSize() < width) {
       row = new BitArray(width);
     }
-    int offset = y * rowSize;
+    int offset = y * rowStride;
     for (int x = 0; x < rowSize; x++) {
       row.setBulk(x << 5, bits[offset + x]);
     }
@@ -86,10 +133,74 @@ public final class BitMatrix {
 
 
   public void setRow(int y, BitArray row) {
+    if (shared) {
+      unshare();
+    }
     System.arraycopy(row.getBitArray(), 0, bits, y * rowSize, rowSize);
   }
 
 
+  public void orRow(int y, BitArray row) {
+    if (shared) {
+      unshare();
+    }
+    int[] rowBits = row.getBitArray();
+    int offset = y * rowSize;
+    for (int i = 0; i < rowSize; i++) {
+      bits[offset + i] |= rowBits[i];
+    }
+  }
+
+
+  public void copyRow(int fromY, int toY) {
+    if (fromY < 0 || fromY >= height || toY < 0 || toY >= height) {
+      throw new IllegalArgumentException("Rows must lie inside the matrix");
+    }
+    if (shared) {
+      unshare();
+    }
+    System.arraycopy(bits, fromY * rowSize, bits, toY * rowSize, rowSize);
+  }
+
+
+  public void fillRows(int sourceY, int top, int height) {
+    if (height < 0 || top < 0 || top + height > this.height || sourceY < 0 || sourceY >= this.height) {
+      throw new IllegalArgumentException("Rows must lie inside the matrix");
+    }
+    if (height == 0) {
+      return;
+    }
+    if (shared) {
+      unshare();
+    }
+    if (sourceY != top) {
+      System.arraycopy(bits, sourceY * rowSize, bits, top * rowSize, rowSize);
+    }
+    int filled = 1;
+    while (filled < height) {
+      int count = Math.min(filled, height - filled);
+      System.arraycopy(bits, top * rowSize, bits, (top + filled) * rowSize, count * rowSize);
+      filled += count;
+    }
+  }
+
+
+  public void or(BitMatrix mask) {
+    if (width != mask.width || height != mask.height || rowSize != mask.rowSize) {
+      throw new IllegalArgumentException("input matrix dimensions do not match");
+    }
+    if (shared) {
+      unshare();
+    }
+    for (int y = 0; y < height; y++) {
+      int offset = y * rowSize;
+      for (int i = 0; i < rowSize; i++) {
+        bits[offset + i] |= mask.getWord(y, i);
+      }
+    }
+  }
+
+
   public int[] getEnclosingRectangle() {
     int left = width;
     int top = height;
@@ -98,7 +209,7 @@ public final class BitMatrix {
 
     for (int y = 0; y < height; y++) {
       for (int x32 = 0; x32 < rowSize; x32++) {
-        int theBits = bits[y * rowSize + x32];
+        int theBits = getWord(y, x32);
         if (theBits != 0) {
           if (y < top) {
             top = y;
@@ -140,45 +251,27 @@ public final class BitMatrix {
 
 
   public int[] getTopLeftOnBit() {
-    int bitsOffset = 0;
-    while (bitsOffset < bits.length && bits[bitsOffset] == 0) {
-      bitsOffset++;
-    }
-    if (bitsOffset == bits.length) {
-      return null;
-    }
-    int y = bitsOffset / rowSize;
-    int x = (bitsOffset % rowSize) << 5;
-
-    int theBits = bits[bitsOffset];
-    int bit = 0;
-    while ((theBits << (31-bit)) == 0) {
-      bit++;
+    for (int y = 0; y < height; y++) {
+      for (int x32 = 0; x32 < rowSize; x32++) {
+        int theBits = getWord(y, x32);
+        if (theBits != 0) {
+          return new int[] {(x32 << 5) + Integer.numberOfTrailingZeros(theBits), y};
+        }
+      }
     }
-    x += bit;
-    return new int[] {x, y};
+    return null;
   }
 
   public int[] getBottomRightOnBit() {
-    int bitsOffset = bits.length - 1;
-    while (bitsOffset >= 0 && bits[bitsOffset] == 0) {
-      bitsOffset--;
-    }
-    if (bitsOffset < 0) {
-      return null;
-    }
-
-    int y = bitsOffset / rowSize;
-    int x = (bitsOffset % rowSize) << 5;
-
-    int theBits = bits[bitsOffset];
-    int bit = 31;
-    while ((theBits >>> bit) == 0) {
-      bit--;
+    for (int y = height - 1; y >= 0; y--) {
+      for (int x32 = rowSize - 1; x32 >= 0; x32--) {
+        int theBits = getWord(y, x32);
+        if (theBits != 0) {
+          return new int[] {(x32 << 5) + 31 - Integer.numberOfLeadingZeros(theBits), y};
+        }
+      }
     }
-    x += bit;
-
-    return new int[] {x, y};
+    return null;
   }
 
 
@@ -191,19 +284,66 @@ public final class BitMatrix {
     return height;
   }
 
+  public boolean isReadOnly() {
+    return false;
+  }
+
+
+  public BitMatrix snapshot() {
+    shared = true;
+    return new Snapshot(width, height, rowSize, rowStride, bits);
+  }
+
+
+  public BitMatrix crop(int left, int top, int width, int height) {
+    if (left < 0 || top < 0) {
+      throw new IllegalArgumentException("Left and top must be nonnegative");
+    }
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("Height and width must be at least 1");
+    }
+    if (left + width > this.width || top + height > this.height) {
+      throw new IllegalArgumentException("The region must fit inside the matrix");
+    }
+    return new Window(snapshot(), -left, -top, width, height);
+  }
+
+
+  public BitMatrix translate(int dx, int dy, int width, int height) {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("Both dimensions must be greater than 0");
+    }
+    return new Window(snapshot(), dx, dy, width, height);
+  }
+
+  int getWord(int y, int x32) {
+    return bits[y * rowStride + x32];
+  }
+
+  private void unshare() {
+    int[] rows = new int[rowSize * height];
+    for (int y = 0; y < height; y++) {
+      System.arraycopy(bits, y * rowStride, rows, y * rowSize, rowSize);
+    }
+    bits = rows;
+    rowStride = rowSize;
+    shared = false;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (!(o instanceof BitMatrix)) {
       return false;
     }
     BitMatrix other = (BitMatrix) o;
-    if (width != other.width || height != other.height ||
-        rowSize != other.rowSize || bits.length != other.bits.length) {
+    if (width != other.width || height != other.height || rowSize != other.rowSize) {
       return false;
     }
-    for (int i = 0; i < bits.length; i++) {
-      if (bits[i] != other.bits[i]) {
-        return false;
+    for (int y = 0; y < height; y++) {
+      for (int i = 0; i < rowSize; i++) {
+        if (getWord(y, i) != other.getWord(y, i)) {
+          return false;
+        }
       }
     }
     return true;
@@ -215,12 +355,20 @@ public final class BitMatrix {
     hash = 31 * hash + width;
     hash = 31 * hash + height;
     hash = 31 * hash + rowSize;
-    for (int bit : bits) {
-      hash = 31 * hash + bit;
+    for (int y = 0; y < height; y++) {
+      for (int i = 0; i < rowSize; i++) {
+        hash = 31 * hash + getWord(y, i);
+      }
     }
     return hash;
   }
 
+  @Override
+  public BitMatrix clone() {
+    shared = true;
+    return new BitMatrix(width, height, rowSize, rowStride, bits, true);
+  }
+
   @Override
   public String toString() {
     StringBuilder result = new StringBuilder(height * (width + 1));
@@ -233,4 +381,184 @@ public final class BitMatrix {
     return result.toString();
   }
 
+
+  private abstract static class ReadOnly extends BitMatrix {
+
+    ReadOnly(int width, int height) {
+      super(width, height, (width + 31) >> 5, 0, null, false);
+    }
+
+    @Override
+    public final void set(int x, int y) {
+      throw readOnly();
+    }
+
+    @Override
+    public final void flip(int x, int y) {
+      throw readOnly();
+    }
+
+    @Override
+    public final void clear() {
+      throw readOnly();
+    }
+
+    @Override
+    public final void setRegion(int left, int top, int width, int height) {
+      throw readOnly();
+    }
+
+    @Override
+    public final void setRow(int y, BitArray row) {
+      throw readOnly();
+    }
+
+    @Override
+    public final void orRow(int y, BitArray row) {
+      throw readOnly();
+    }
+
+    @Override
+    public final void copyRow(int fromY, int toY) {
+      throw readOnly();
+    }
+
+    @Override
+    public final void fillRows(int sourceY, int top, int height) {
+      throw readOnly();
+    }
+
+    @Override
+    public final void or(BitMatrix mask) {
+      throw readOnly();
+    }
+
+    @Override
+    public final boolean isReadOnly() {
+      return true;
+    }
+
+    @Override
+    public final BitMatrix snapshot() {
+      return this;
+    }
+
+    @Override
+    public BitArray getRow(int y, BitArray row) {
+      int width = getWidth();
+      if (row == null || row.getSize() < width) {
+        row = new BitArray(width);
+      }
+      int rowSize = (width + 31) >> 5;
+      for (int x = 0; x < rowSize; x++) {
+        row.setBulk(x << 5, getWord(y, x));
+      }
+      return row;
+    }
+
+    @Override
+    public BitMatrix clone() {
+      int width = getWidth();
+      int height = getHeight();
+      int rowSize = (width + 31) >> 5;
+      int[] copy = new int[rowSize * height];
+      for (int y = 0; y < height; y++) {
+        for (int i = 0; i < rowSize; i++) {
+          copy[y * rowSize + i] = getWord(y, i);
+        }
+      }
+      return new BitMatrix(width, height, rowSize, rowSize, copy, false);
+    }
+
+    private static UnsupportedOperationException readOnly() {
+      return new UnsupportedOperationException("BitMatrix is read-only");
+    }
+
+  }
+
+
+  private static final class Snapshot extends ReadOnly {
+
+    private final int rowStride;
+    private final int[] bits;
+
+    Snapshot(int width, int height, int rowSize, int rowStride, int[] bits) {
+      super(width, height);
+      this.rowStride = rowStride;
+      this.bits = bits;
+    }
+
+    @Override
+    public boolean get(int x, int y) {
+      int offset = y * rowStride + (x >> 5);
+      return ((bits[offset] >>> (x & 0x1f)) & 1) != 0;
+    }
+
+    @Override
+    int getWord(int y, int x32) {
+      return bits[y * rowStride + x32];
+    }
+
+    @Override
+    public BitMatrix clone() {
+      return new BitMatrix(getWidth(), getHeight(), (getWidth() + 31) >> 5, rowStride, bits, true);
+    }
+
+  }
+
+
+  private static final class Window extends ReadOnly {
+
+    private final BitMatrix source;
+    private final int originX;
+    private final int originY;
+
+    Window(BitMatrix source, int originX, int originY, int width, int height) {
+      super(width, height);
+      this.source = source;
+      this.originX = originX;
+      this.originY = originY;
+    }
+
+    @Override
+    public boolean get(int x, int y) {
+      if (x < 0 || x >= getWidth() || y < 0 || y >= getHeight()) {
+        throw new IndexOutOfBoundsException(x + "," + y);
+      }
+      int sourceX = x - originX;
+      int sourceY = y - originY;
+      return sourceX >= 0 && sourceX < source.width && sourceY >= 0 && sourceY < source.height &&
+          source.get(sourceX, sourceY);
+    }
+
+    @Override
+    int getWord(int y, int x32) {
+      int sourceY = y - originY;
+      if (sourceY < 0 || sourceY >= source.height) {
+        return 0;
+      }
+      int start = (x32 << 5) - originX;
+      int word = start >> 5;
+      int shift = start & 0x1f;
+      int theBits = getSourceWord(sourceY, word) >>> shift;
+      if (shift != 0) {
+        theBits |= getSourceWord(sourceY, word + 1) << (32 - shift);
+      }
+      int sourceRemaining = source.width - start;
+      if (sourceRemaining < 32) {
+        theBits &= sourceRemaining <= 0 ? 0 : (1 << sourceRemaining) - 1;
+      }
+      int remaining = getWidth() - (x32 << 5);
+      if (remaining < 32) {
+        theBits &= (1 << remaining) - 1;
+      }
+      return theBits;
+    }
+
+    private int getSourceWord(int y, int x32) {
+      return x32 < 0 || x32 >= source.rowSize ? 0 : source.getWord(y, x32);
+    }
+
+  }
+
 }
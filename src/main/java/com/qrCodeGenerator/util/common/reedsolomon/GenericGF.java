@@ -14,27 +14,21 @@ public final class GenericGF {
   public static final GenericGF AZTEC_DATA_8 = DATA_MATRIX_FIELD_256;
   public static final GenericGF MAXICODE_FIELD_64 = AZTEC_DATA_6;
 
-  private static final int INITIALIZATION_THRESHOLD = 0;
+  private static final int MAX_MULTIPLY_TABLE_SIZE = 256;
 
-  private int[] expTable;
-  private int[] logTable;
-  private GenericGFPoly zero;
-  private GenericGFPoly one;
+  private final int[] expTable;
+  private final int[] logTable;
+  private final byte[] multiplyTable;
+  private final GenericGFPoly zero;
+  private final GenericGFPoly one;
   private final int size;
   private final int primitive;
-  private boolean initialized = false;
 
 
   public GenericGF(int primitive, int size) {
-  	this.primitive = primitive;
+    this.primitive = primitive;
     this.size = size;
-    
-    if (size <= INITIALIZATION_THRESHOLD){
-    	initialize();
-    }
-  }
 
-  private void initialize(){
     expTable = new int[size];
     logTable = new int[size];
     int x = 1;
@@ -50,33 +44,33 @@ public final class GenericGF {
       logTable[expTable[i]] = i;
     }
 
+    if (size <= MAX_MULTIPLY_TABLE_SIZE) {
+      multiplyTable = new byte[size * size];
+      for (int a = 1; a < size; a++) {
+        int offset = a * size;
+        for (int b = 1; b < size; b++) {
+          int logSum = logTable[a] + logTable[b];
+          multiplyTable[offset + b] = (byte) expTable[(logSum % size) + logSum / size];
+        }
+      }
+    } else {
+      multiplyTable = null;
+    }
+
     zero = new GenericGFPoly(this, new int[]{0});
     one = new GenericGFPoly(this, new int[]{1});
-    initialized = true;
   }
-  
-  private void checkInit(){
-  	if (!initialized) {
-      initialize();
-    }
-  }
-  
+
   GenericGFPoly getZero() {
-  	checkInit();
-  	
     return zero;
   }
 
   GenericGFPoly getOne() {
-  	checkInit();
-  	
     return one;
   }
 
 
   GenericGFPoly buildMonomial(int degree, int coefficient) {
-  	checkInit();
-  	
     if (degree < 0) {
       throw new IllegalArgumentException();
     }
@@ -95,15 +89,11 @@ public final class GenericGF {
 
 
   int exp(int a) {
-  	checkInit();
-  	
     return expTable[a];
   }
 
 
   int log(int a) {
-  	checkInit();
-  	
     if (a == 0) {
       throw new IllegalArgumentException();
     }
@@ -112,8 +102,6 @@ public final class GenericGF {
 
 
   int inverse(int a) {
-  	checkInit();
-  	
     if (a == 0) {
       throw new ArithmeticException();
     }
@@ -122,16 +110,16 @@ public final class GenericGF {
 
 
   int multiply(int a, int b) {
-  	checkInit();
-  	
     if (a == 0 || b == 0) {
       return 0;
     }
-    
+
     if (a<0 || b <0 || a>=size || b >=size){
     	a++;
+    } else if (multiplyTable != null) {
+      return multiplyTable[a * size + b] & 0xFF;
     }
-    
+
     int logSum = logTable[a] + logTable[b];
     return expTable[(logSum % size) + logSum / size];
   }
@@ -139,5 +127,5 @@ public final class GenericGF {
   public int getSize(){
   	return size;
   }
-  
+
 }
@@ -0,0 +1,85 @@
+package com.qrCodeGenerator.util.common.reedsolomon;
+
+
+public final class ReedSolomonByteEncoder {
+
+  private static final int LOG_ZERO = 512;
+
+  private final int[] expTable;
+  private final int[] logTable;
+  private final int[][] generatorLogs;
+
+  public ReedSolomonByteEncoder(GenericGF field, int[] degrees) {
+    if (field.getSize() != 256) {
+      throw new IllegalArgumentException("Only 8-bit fields are supported");
+    }
+    expTable = new int[LOG_ZERO * 2 + 1];
+    for (int i = 0; i < 2 * 255; i++) {
+      expTable[i] = field.exp(i % 255);
+    }
+    logTable = new int[256];
+    logTable[0] = LOG_ZERO;
+    for (int i = 1; i < 256; i++) {
+      logTable[i] = field.log(i);
+    }
+
+    int maxDegree = 0;
+    for (int degree : degrees) {
+      if (degree < 1) {
+        throw new IllegalArgumentException("No error correction bytes");
+      }
+      maxDegree = Math.max(maxDegree, degree);
+    }
+    generatorLogs = new int[maxDegree + 1][];
+    GenericGFPoly generator = new GenericGFPoly(field, new int[]{1});
+    int generatorDegree = 0;
+    for (int degree = 1; degree <= maxDegree; degree++) {
+      if (!contains(degrees, degree)) {
+        continue;
+      }
+      while (generatorDegree < degree) {
+        generator = generator.multiply(new GenericGFPoly(field, new int[]{1, field.exp(generatorDegree)}));
+        generatorDegree++;
+      }
+      int[] logs = new int[degree];
+      for (int i = 0; i < degree; i++) {
+        logs[i] = logTable[generator.getCoefficient(degree - 1 - i)];
+      }
+      generatorLogs[degree] = logs;
+    }
+  }
+
+  public void encode(byte[] data, int off, int len, byte[] ecOut) {
+    int numEcBytes = ecOut.length;
+    int[] generator = numEcBytes < generatorLogs.length ? generatorLogs[numEcBytes] : null;
+    if (generator == null) {
+      throw new IllegalArgumentException("No generator for " + numEcBytes + " error correction bytes");
+    }
+    if (len <= 0) {
+      throw new IllegalArgumentException("No data bytes provided");
+    }
+    int[] exp = expTable;
+    int[] log = logTable;
+    int last = numEcBytes - 1;
+    for (int i = 0; i < numEcBytes; i++) {
+      ecOut[i] = 0;
+    }
+    for (int i = off, end = off + len; i < end; i++) {
+      int feedback = log[(data[i] ^ ecOut[0]) & 0xFF];
+      for (int j = 0; j < last; j++) {
+        ecOut[j] = (byte) (ecOut[j + 1] ^ exp[feedback + generator[j]]);
+      }
+      ecOut[last] = (byte) exp[feedback + generator[last]];
+    }
+  }
+
+  private static boolean contains(int[] values, int value) {
+    for (int v : values) {
+      if (v == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -42,11 +42,17 @@ public final class CodaBarReader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException {
-    int[] start = findAsteriskPattern(row);
+    return decodeRow(rowNumber, row, new RowRuns(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, BitArray row, RowRuns runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException {
+    int[] start = findAsteriskPattern(runs);
     start[1] = 0;
 
-    int nextStart = row.getNextSet(start[1]);
-    int end = row.getSize();
+    int nextStart = runs.getNextSet(start[1]);
+    int end = runs.getSize();
 
     StringBuilder result = new StringBuilder();
     int[] counters = new int[7];
@@ -56,7 +62,7 @@ public final class CodaBarReader extends OneDReader {
       for (int i = 0; i < counters.length; i++) {
         counters[i] = 0;
       }
-      recordPattern(row, nextStart, counters);
+      recordPattern(runs, nextStart, counters);
 
       char decodedChar = toNarrowWidePattern(counters);
       if (decodedChar == '!') {
@@ -69,7 +75,7 @@ public final class CodaBarReader extends OneDReader {
       }
 
 
-      nextStart = row.getNextSet(nextStart);
+      nextStart = runs.getNextSet(nextStart);
     } while (nextStart < end);
 
 
@@ -127,42 +133,43 @@ public final class CodaBarReader extends OneDReader {
         BarcodeFormat.CODABAR);
   }
 
-  private static int[] findAsteriskPattern(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
+  private static int[] findAsteriskPattern(RowRuns runs) throws NotFoundException {
+    int width = runs.getSize();
+    int rowOffset = runs.getNextSet(0);
+    if (rowOffset == width) {
+      throw NotFoundException.getNotFoundInstance();
+    }
 
     int counterPosition = 0;
     int[] counters = new int[7];
     int patternStart = rowOffset;
-    boolean isWhite = false;
     int patternLength = counters.length;
-
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          try {
-            if (arrayContains(STARTEND_ENCODING, toNarrowWidePattern(counters))) {
-
-              if (row.isRange(Math.max(0, patternStart - (i - patternStart) / 2), patternStart, false)) {
-                return new int[]{patternStart, i};
-              }
+    int runCount = runs.getRunCount();
+    int run = runs.getRunAt(rowOffset);
+    counters[0] = runs.getRunEnd(run) - rowOffset;
+
+    while (++run < runCount) {
+      int i = runs.getRunStart(run);
+      if (counterPosition == patternLength - 1) {
+        try {
+          if (arrayContains(STARTEND_ENCODING, toNarrowWidePattern(counters))) {
+
+            if (runs.isRange(Math.max(0, patternStart - (i - patternStart) / 2), patternStart, false)) {
+              return new int[]{patternStart, i};
             }
-          } catch (IllegalArgumentException re) {
-
           }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, patternLength - 2);
-          counters[patternLength - 2] = 0;
-          counters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
+        } catch (IllegalArgumentException re) {
+
         }
-        counters[counterPosition] = 1;
-        isWhite ^= true;
+        patternStart += counters[0] + counters[1];
+        System.arraycopy(counters, 2, counters, 0, patternLength - 2);
+        counters[patternLength - 2] = 0;
+        counters[patternLength - 1] = 0;
+        counterPosition--;
+      } else {
+        counterPosition++;
       }
+      counters[counterPosition] = runs.getRunLength(run);
     }
     throw NotFoundException.getNotFoundInstance();
   }
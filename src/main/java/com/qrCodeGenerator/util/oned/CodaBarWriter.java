@@ -2,8 +2,13 @@
 
 package com.qrCodeGenerator.util.oned;
 
+import com.qrCodeGenerator.util.BarcodeFormat;
+import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.ModuleGrid;
 import com.qrCodeGenerator.util.common.BitMatrix;
 
+import java.util.Map;
+
 
 public class CodaBarWriter extends OneDimensionalCodeWriter {
 
@@ -14,6 +19,16 @@ public class CodaBarWriter extends OneDimensionalCodeWriter {
     super(20);
   }
 
+  @Override
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) {
+    if (format != BarcodeFormat.CODABAR) {
+      throw new IllegalArgumentException("Can only encode CODABAR, but got " + format);
+    }
+    return super.encodeModules(contents, format, hints);
+  }
+
 
   @Override
   public byte[] encode(String contents) {
@@ -148,56 +148,57 @@ public final class Code128Reader extends OneDReader {
   private static final int CODE_START_C = 105;
   private static final int CODE_STOP = 106;
 
-  private static int[] findStartPattern(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
+  private static int[] findStartPattern(RowRuns runs) throws NotFoundException {
+    int width = runs.getSize();
+    int rowOffset = runs.getNextSet(0);
+    if (rowOffset == width) {
+      throw NotFoundException.getNotFoundInstance();
+    }
 
     int counterPosition = 0;
     int[] counters = new int[6];
     int patternStart = rowOffset;
-    boolean isWhite = false;
     int patternLength = counters.length;
-
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          int bestVariance = MAX_AVG_VARIANCE;
-          int bestMatch = -1;
-          for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
-            int variance = patternMatchVariance(counters, CODE_PATTERNS[startCode],
-                MAX_INDIVIDUAL_VARIANCE);
-            if (variance < bestVariance) {
-              bestVariance = variance;
-              bestMatch = startCode;
-            }
+    int runCount = runs.getRunCount();
+    int run = runs.getRunAt(rowOffset);
+    counters[0] = runs.getRunEnd(run) - rowOffset;
+
+    while (++run < runCount) {
+      int i = runs.getRunStart(run);
+      if (counterPosition == patternLength - 1) {
+        int bestVariance = MAX_AVG_VARIANCE;
+        int bestMatch = -1;
+        for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
+          int variance = patternMatchVariance(counters, CODE_PATTERNS[startCode],
+              MAX_INDIVIDUAL_VARIANCE);
+          if (variance < bestVariance) {
+            bestVariance = variance;
+            bestMatch = startCode;
           }
-          if (bestMatch >= 0) {
+        }
+        if (bestMatch >= 0) {
 
-            if (row.isRange(Math.max(0, patternStart - (i - patternStart) / 2), patternStart,
-                false)) {
-              return new int[]{patternStart, i, bestMatch};
-            }
+          if (runs.isRange(Math.max(0, patternStart - (i - patternStart) / 2), patternStart,
+              false)) {
+            return new int[]{patternStart, i, bestMatch};
           }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, patternLength - 2);
-          counters[patternLength - 2] = 0;
-          counters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
         }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+        patternStart += counters[0] + counters[1];
+        System.arraycopy(counters, 2, counters, 0, patternLength - 2);
+        counters[patternLength - 2] = 0;
+        counters[patternLength - 1] = 0;
+        counterPosition--;
+      } else {
+        counterPosition++;
       }
+      counters[counterPosition] = runs.getRunLength(run);
     }
     throw NotFoundException.getNotFoundInstance();
   }
 
-  private static int decodeCode(BitArray row, int[] counters, int rowOffset)
+  private static int decodeCode(RowRuns runs, int[] counters, int rowOffset)
       throws NotFoundException {
-    recordPattern(row, rowOffset, counters);
+    recordPattern(runs, rowOffset, counters);
     int bestVariance = MAX_AVG_VARIANCE;
     int bestMatch = -1;
     for (int d = 0; d < CODE_PATTERNS.length; d++) {
@@ -219,8 +220,14 @@ public final class Code128Reader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, FormatException, ChecksumException {
+    return decodeRow(rowNumber, row, new RowRuns(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, BitArray row, RowRuns runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException, FormatException, ChecksumException {
 
-    int[] startPatternInfo = findStartPattern(row);
+    int[] startPatternInfo = findStartPattern(runs);
     int startCode = startPatternInfo[2];
     int codeSet;
     switch (startCode) {
@@ -262,7 +269,7 @@ public final class Code128Reader extends OneDReader {
       lastCode = code;
 
 
-      code = decodeCode(row, counters, nextStart);
+      code = decodeCode(runs, counters, nextStart);
 
       rawCodes.add((byte) code);
 
@@ -395,10 +402,10 @@ public final class Code128Reader extends OneDReader {
 
 
 
-    nextStart = row.getNextUnset(nextStart);
-    if (!row.isRange(nextStart,
-                     Math.min(row.getSize(), nextStart + (nextStart - lastStart) / 2),
-                     false)) {
+    nextStart = runs.getNextUnset(nextStart);
+    if (!runs.isRange(nextStart,
+                      Math.min(runs.getSize(), nextStart + (nextStart - lastStart) / 2),
+                      false)) {
       throw NotFoundException.getNotFoundInstance();
     }
 
@@ -4,6 +4,7 @@ package com.qrCodeGenerator.util.oned;
 
 import com.qrCodeGenerator.util.BarcodeFormat;
 import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.ModuleGrid;
 import com.qrCodeGenerator.util.WriterException;
 import com.qrCodeGenerator.util.common.BitMatrix;
 
@@ -43,6 +44,16 @@ public final class Code128Writer extends UPCEANWriter {
     return super.encode(contents, format, width, height, hints);
   }
 
+  @Override
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) {
+    if (format != BarcodeFormat.CODE_128) {
+      throw new IllegalArgumentException("Can only encode CODE_128, but got " + format);
+    }
+    return super.encodeModules(contents, format, hints);
+  }
+
   @Override
   public byte[] encode(String contents) {
     int length = contents.length();
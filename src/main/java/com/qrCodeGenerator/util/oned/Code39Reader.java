@@ -54,18 +54,24 @@ public final class Code39Reader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, row, new RowRuns(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, BitArray row, RowRuns runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
 
     int[] counters = new int[9];
-    int[] start = findAsteriskPattern(row, counters);
+    int[] start = findAsteriskPattern(runs, counters);
 
-    int nextStart = row.getNextSet(start[1]);
-    int end = row.getSize();
+    int nextStart = runs.getNextSet(start[1]);
+    int end = runs.getSize();
 
     StringBuilder result = new StringBuilder(20);
     char decodedChar;
     int lastStart;
     do {
-      recordPattern(row, nextStart, counters);
+      recordPattern(runs, nextStart, counters);
       int pattern = toNarrowWidePattern(counters);
       if (pattern < 0) {
         throw NotFoundException.getNotFoundInstance();
@@ -77,7 +83,7 @@ public final class Code39Reader extends OneDReader {
         nextStart += counter;
       }
 
-      nextStart = row.getNextSet(nextStart);
+      nextStart = runs.getNextSet(nextStart);
     } while (decodedChar != '*');
     result.setLength(result.length() - 1);
 
@@ -129,37 +135,38 @@ public final class Code39Reader extends OneDReader {
 
   }
 
-  private static int[] findAsteriskPattern(BitArray row, int[] counters) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
+  private static int[] findAsteriskPattern(RowRuns runs, int[] counters) throws NotFoundException {
+    int width = runs.getSize();
+    int rowOffset = runs.getNextSet(0);
+    if (rowOffset == width) {
+      throw NotFoundException.getNotFoundInstance();
+    }
 
     int counterPosition = 0;
     int patternStart = rowOffset;
-    boolean isWhite = false;
     int patternLength = counters.length;
+    int runCount = runs.getRunCount();
+    int run = runs.getRunAt(rowOffset);
+    counters[0] = runs.getRunEnd(run) - rowOffset;
 
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (toNarrowWidePattern(counters) == ASTERISK_ENCODING) {
+    while (++run < runCount) {
+      int i = runs.getRunStart(run);
+      if (counterPosition == patternLength - 1) {
+        if (toNarrowWidePattern(counters) == ASTERISK_ENCODING) {
 
-            if (row.isRange(Math.max(0, patternStart - ((i - patternStart) >> 1)), patternStart, false)) {
-              return new int[]{patternStart, i};
-            }
+          if (runs.isRange(Math.max(0, patternStart - ((i - patternStart) >> 1)), patternStart, false)) {
+            return new int[]{patternStart, i};
           }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, patternLength - 2);
-          counters[patternLength - 2] = 0;
-          counters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
         }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+        patternStart += counters[0] + counters[1];
+        System.arraycopy(counters, 2, counters, 0, patternLength - 2);
+        counters[patternLength - 2] = 0;
+        counters[patternLength - 1] = 0;
+        counterPosition--;
+      } else {
+        counterPosition++;
       }
+      counters[counterPosition] = runs.getRunLength(run);
     }
     throw NotFoundException.getNotFoundInstance();
   }
@@ -4,6 +4,7 @@ package com.qrCodeGenerator.util.oned;
 
 import com.qrCodeGenerator.util.BarcodeFormat;
 import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.ModuleGrid;
 import com.qrCodeGenerator.util.WriterException;
 import com.qrCodeGenerator.util.common.BitMatrix;
 
@@ -24,6 +25,16 @@ public final class Code39Writer extends UPCEANWriter {
     return super.encode(contents, format, width, height, hints);
   }
 
+  @Override
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) {
+    if (format != BarcodeFormat.CODE_39) {
+      throw new IllegalArgumentException("Can only encode CODE_39, but got " + format);
+    }
+    return super.encodeModules(contents, format, hints);
+  }
+
   @Override
   public byte[] encode(String contents) {
     int length = contents.length();
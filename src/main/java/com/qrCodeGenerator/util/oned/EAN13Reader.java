@@ -4,7 +4,6 @@ package com.qrCodeGenerator.util.oned;
 
 import com.qrCodeGenerator.util.BarcodeFormat;
 import com.qrCodeGenerator.util.NotFoundException;
-import com.qrCodeGenerator.util.common.BitArray;
 
 
 public final class EAN13Reader extends UPCEANReader {
@@ -49,7 +48,7 @@ public final class EAN13Reader extends UPCEANReader {
   }
 
   @Override
-  protected int decodeMiddle(BitArray row,
+  protected int decodeMiddle(RowRuns runs,
                              int[] startRange,
                              StringBuilder resultString) throws NotFoundException {
     int[] counters = decodeMiddleCounters;
@@ -57,13 +56,13 @@ public final class EAN13Reader extends UPCEANReader {
     counters[1] = 0;
     counters[2] = 0;
     counters[3] = 0;
-    int end = row.getSize();
+    int end = runs.getSize();
     int rowOffset = startRange[1];
 
     int lgPatternFound = 0;
 
     for (int x = 0; x < 6 && rowOffset < end; x++) {
-      int bestMatch = decodeDigit(row, counters, rowOffset, L_AND_G_PATTERNS);
+      int bestMatch = decodeDigit(runs, counters, rowOffset, L_AND_G_PATTERNS);
       resultString.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -75,11 +74,11 @@ public final class EAN13Reader extends UPCEANReader {
 
     determineFirstDigit(resultString, lgPatternFound);
 
-    int[] middleRange = findGuardPattern(row, rowOffset, true, MIDDLE_PATTERN);
+    int[] middleRange = findGuardPattern(runs, rowOffset, true, MIDDLE_PATTERN);
     rowOffset = middleRange[1];
 
     for (int x = 0; x < 6 && rowOffset < end; x++) {
-      int bestMatch = decodeDigit(row, counters, rowOffset, L_PATTERNS);
+      int bestMatch = decodeDigit(runs, counters, rowOffset, L_PATTERNS);
       resultString.append((char) ('0' + bestMatch));
       for (int counter : counters) {
         rowOffset += counter;
@@ -47,13 +47,19 @@ public final class ITFReader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws FormatException, NotFoundException {
+    return decodeRow(rowNumber, row, new RowRuns(row), hints);
+  }
 
+  @Override
+  public Result decodeRow(int rowNumber, BitArray row, RowRuns runs, Map<DecodeHintType,?> hints)
+      throws FormatException, NotFoundException {
 
-    int[] startRange = decodeStart(row);
-    int[] endRange = decodeEnd(row);
+
+    int[] startRange = decodeStart(runs);
+    int[] endRange = decodeEnd(runs);
 
     StringBuilder result = new StringBuilder(20);
-    decodeMiddle(row, startRange[1], endRange[0], result);
+    decodeMiddle(runs, startRange[1], endRange[0], result);
     String resultString = result.toString();
 
     int[] allowedLengths = null;
@@ -88,7 +94,7 @@ public final class ITFReader extends OneDReader {
   }
 
 
-  private static void decodeMiddle(BitArray row,
+  private static void decodeMiddle(RowRuns runs,
                                    int payloadStart,
                                    int payloadEnd,
                                    StringBuilder resultString) throws NotFoundException {
@@ -105,7 +111,7 @@ public final class ITFReader extends OneDReader {
     while (payloadStart < payloadEnd) {
 
 
-      recordPattern(row, payloadStart, counterDigitPair);
+      recordPattern(runs, payloadStart, counterDigitPair);
 
       for (int k = 0; k < 5; k++) {
         int twoK = k << 1;
@@ -125,41 +131,35 @@ public final class ITFReader extends OneDReader {
   }
 
 
-  int[] decodeStart(BitArray row) throws NotFoundException {
-    int endStart = skipWhiteSpace(row);
-    int[] startPattern = findGuardPattern(row, endStart, START_PATTERN);
+  int[] decodeStart(RowRuns runs) throws NotFoundException {
+    int endStart = skipWhiteSpace(runs);
+    int[] startPattern = findGuardPattern(runs, endStart, START_PATTERN);
 
 
 
 
     this.narrowLineWidth = (startPattern[1] - startPattern[0]) >> 2;
 
-    validateQuietZone(row, startPattern[0]);
+    validateQuietZone(runs, startPattern[0]);
 
     return startPattern;
   }
 
 
-  private void validateQuietZone(BitArray row, int startPattern) throws NotFoundException {
+  private void validateQuietZone(RowRuns runs, int startPattern) throws NotFoundException {
 
     int quietCount = this.narrowLineWidth * 10;
 
-    for (int i = startPattern - 1; quietCount > 0 && i >= 0; i--) {
-      if (row.get(i)) {
-        break;
-      }
-      quietCount--;
-    }
-    if (quietCount != 0) {
+    if (quietCount > startPattern || !runs.isRange(startPattern - quietCount, startPattern, false)) {
 
       throw NotFoundException.getNotFoundInstance();
     }
   }
 
 
-  private static int skipWhiteSpace(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int endStart = row.getNextSet(0);
+  private static int skipWhiteSpace(RowRuns runs) throws NotFoundException {
+    int width = runs.getSize();
+    int endStart = runs.getNextSet(0);
     if (endStart == width) {
       throw NotFoundException.getNotFoundInstance();
     }
@@ -168,36 +168,36 @@ public final class ITFReader extends OneDReader {
   }
 
 
-  int[] decodeEnd(BitArray row) throws NotFoundException {
+  int[] decodeEnd(RowRuns runs) throws NotFoundException {
 
 
 
-    row.reverse();
+    runs.reverse();
     try {
-      int endStart = skipWhiteSpace(row);
-      int[] endPattern = findGuardPattern(row, endStart, END_PATTERN_REVERSED);
+      int endStart = skipWhiteSpace(runs);
+      int[] endPattern = findGuardPattern(runs, endStart, END_PATTERN_REVERSED);
 
 
 
 
-      validateQuietZone(row, endPattern[0]);
+      validateQuietZone(runs, endPattern[0]);
 
 
 
 
       int temp = endPattern[0];
-      endPattern[0] = row.getSize() - endPattern[1];
-      endPattern[1] = row.getSize() - temp;
+      endPattern[0] = runs.getSize() - endPattern[1];
+      endPattern[1] = runs.getSize() - temp;
 
       return endPattern;
     } finally {
 
-      row.reverse();
+      runs.reverse();
     }
   }
 
 
-  private static int[] findGuardPattern(BitArray row,
+  private static int[] findGuardPattern(RowRuns runs,
                                         int rowOffset,
                                         int[] pattern) throws NotFoundException {
 
@@ -205,30 +205,27 @@ public final class ITFReader extends OneDReader {
 
     int patternLength = pattern.length;
     int[] counters = new int[patternLength];
-    int width = row.getSize();
-    boolean isWhite = false;
+    int runCount = runs.getRunCount();
+    int run = runs.getRunAt(rowOffset);
+    counters[0] = runs.getRunEnd(run) - rowOffset;
 
     int counterPosition = 0;
     int patternStart = rowOffset;
-    for (int x = rowOffset; x < width; x++) {
-      if (row.get(x) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
-            return new int[]{patternStart, x};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, patternLength - 2);
-          counters[patternLength - 2] = 0;
-          counters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
+    while (++run < runCount) {
+      int x = runs.getRunStart(run);
+      if (counterPosition == patternLength - 1) {
+        if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+          return new int[]{patternStart, x};
         }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+        patternStart += counters[0] + counters[1];
+        System.arraycopy(counters, 2, counters, 0, patternLength - 2);
+        counters[patternLength - 2] = 0;
+        counters[patternLength - 1] = 0;
+        counterPosition--;
+      } else {
+        counterPosition++;
       }
+      counters[counterPosition] = runs.getRunLength(run);
     }
     throw NotFoundException.getNotFoundInstance();
   }
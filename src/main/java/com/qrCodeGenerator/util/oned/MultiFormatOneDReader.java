@@ -0,0 +1,130 @@
+package com.qrCodeGenerator.util.oned;
+
+import com.qrCodeGenerator.util.BarcodeFormat;
+import com.qrCodeGenerator.util.DecodeHintType;
+import com.qrCodeGenerator.util.NotFoundException;
+import com.qrCodeGenerator.util.ReaderException;
+import com.qrCodeGenerator.util.Result;
+import com.qrCodeGenerator.util.common.BitArray;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+
+public final class MultiFormatOneDReader extends OneDReader {
+
+  private static final int MAX_HITS = 1 << 16;
+
+  private final OneDReader[] readers;
+  private final int[] hits;
+  private final boolean ean13AsUpcA;
+
+  public MultiFormatOneDReader() {
+    this(null);
+  }
+
+
+  public MultiFormatOneDReader(Map<DecodeHintType,?> hints) {
+    @SuppressWarnings("unchecked")
+    Collection<BarcodeFormat> possibleFormats = hints == null ? null :
+        (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+    boolean useCode39CheckDigit = hints != null &&
+        hints.get(DecodeHintType.ASSUME_CODE_39_CHECK_DIGIT) != null;
+    List<OneDReader> enabled = new ArrayList<OneDReader>();
+    if (possibleFormats != null) {
+      addReaders(enabled, possibleFormats, useCode39CheckDigit);
+    }
+    if (enabled.isEmpty()) {
+      addReaders(enabled, null, useCode39CheckDigit);
+    }
+    readers = enabled.toArray(new OneDReader[enabled.size()]);
+    hits = new int[readers.length];
+    ean13AsUpcA = possibleFormats != null &&
+        possibleFormats.contains(BarcodeFormat.UPC_A) && !possibleFormats.contains(BarcodeFormat.EAN_13);
+  }
+
+  private static void addReaders(List<OneDReader> readers,
+                                 Collection<BarcodeFormat> possibleFormats,
+                                 boolean useCode39CheckDigit) {
+    if (possibleFormats == null || possibleFormats.contains(BarcodeFormat.CODE_128)) {
+      readers.add(new Code128Reader());
+    }
+    if (possibleFormats == null || possibleFormats.contains(BarcodeFormat.CODE_39)) {
+      readers.add(new Code39Reader(useCode39CheckDigit));
+    }
+    if (possibleFormats == null || possibleFormats.contains(BarcodeFormat.ITF)) {
+      readers.add(new ITFReader());
+    }
+    if (possibleFormats == null || possibleFormats.contains(BarcodeFormat.CODABAR)) {
+      readers.add(new CodaBarReader());
+    }
+    if (possibleFormats == null ||
+        possibleFormats.contains(BarcodeFormat.EAN_13) || possibleFormats.contains(BarcodeFormat.UPC_A)) {
+      readers.add(new EAN13Reader());
+    }
+    if (possibleFormats == null || possibleFormats.contains(BarcodeFormat.UPC_E)) {
+      readers.add(new UPCEReader());
+    }
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
+      throws NotFoundException {
+    return decodeRow(rowNumber, row, new RowRuns(row), hints);
+  }
+
+
+  @Override
+  public Result decodeRow(int rowNumber, BitArray row, RowRuns runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException {
+    for (int i = 0; i < readers.length; i++) {
+      try {
+        Result result = readers[i].decodeRow(rowNumber, row, runs, hints);
+        recordHit(i);
+        return maybeConvertToUPCA(result);
+      } catch (ReaderException re) {
+
+      }
+    }
+    throw NotFoundException.getNotFoundInstance();
+  }
+
+
+  private void recordHit(int index) {
+    if (++hits[index] == MAX_HITS) {
+      for (int i = 0; i < hits.length; i++) {
+        hits[i] >>= 1;
+      }
+    }
+    while (index > 0 && hits[index] > hits[index - 1]) {
+      OneDReader reader = readers[index];
+      readers[index] = readers[index - 1];
+      readers[index - 1] = reader;
+      int count = hits[index];
+      hits[index] = hits[index - 1];
+      hits[index - 1] = count;
+      index--;
+    }
+  }
+
+  private Result maybeConvertToUPCA(Result result) {
+    String text = result.getText();
+    if (!ean13AsUpcA || result.getBarcodeFormat() != BarcodeFormat.EAN_13 || text.charAt(0) != '0') {
+      return result;
+    }
+    Result upcaResult = new Result(text.substring(1), result.getRawBytes(), result.getResultPoints(),
+        BarcodeFormat.UPC_A);
+    upcaResult.putAllMetadata(result.getResultMetadata());
+    return upcaResult;
+  }
+
+  @Override
+  public void reset() {
+    for (OneDReader reader : readers) {
+      reader.reset();
+    }
+  }
+
+}
@@ -37,23 +37,7 @@ public abstract class OneDReader implements Reader {
       if (tryHarder && image.isRotateSupported()) {
         BinaryBitmap rotatedImage = image.rotateCounterClockwise();
         Result result = doDecode(rotatedImage, hints);
-
-        Map<ResultMetadataType,?> metadata = result.getResultMetadata();
-        int orientation = 270;
-        if (metadata != null && metadata.containsKey(ResultMetadataType.ORIENTATION)) {
-
-          orientation = (orientation +
-              (Integer) metadata.get(ResultMetadataType.ORIENTATION)) % 360;
-        }
-        result.putMetadata(ResultMetadataType.ORIENTATION, orientation);
-
-        ResultPoint[] points = result.getResultPoints();
-        if (points != null) {
-          int height = rotatedImage.getHeight();
-          for (int i = 0; i < points.length; i++) {
-            points[i] = new ResultPoint(height - points[i].getY() - 1, points[i].getX());
-          }
-        }
+        rotateResult(result, rotatedImage.getHeight());
         return result;
       } else {
         throw nfe;
@@ -66,32 +50,78 @@ public abstract class OneDReader implements Reader {
   }
 
 
+  static void rotateResult(Result result, int rotatedHeight) {
+    Map<ResultMetadataType,?> metadata = result.getResultMetadata();
+    int orientation = 270;
+    if (metadata != null && metadata.containsKey(ResultMetadataType.ORIENTATION)) {
+
+      orientation = (orientation +
+          (Integer) metadata.get(ResultMetadataType.ORIENTATION)) % 360;
+    }
+    result.putMetadata(ResultMetadataType.ORIENTATION, orientation);
+
+    ResultPoint[] points = result.getResultPoints();
+    if (points != null) {
+      for (int i = 0; i < points.length; i++) {
+        points[i] = new ResultPoint(rotatedHeight - points[i].getY() - 1, points[i].getX());
+      }
+    }
+  }
+
+
+  static void reverseResult(Result result, int width) {
+    result.putMetadata(ResultMetadataType.ORIENTATION, 180);
+
+    ResultPoint[] points = result.getResultPoints();
+    if (points != null) {
+      points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
+      points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
+    }
+  }
+
+
+  static int getRowStep(int height, boolean tryHarder) {
+    return Math.max(1, height >> (tryHarder ? 8 : 5));
+  }
+
+
+  static int getProbeCount(int height, boolean tryHarder) {
+    int maxLines = tryHarder ? height : 15;
+    int middle = height >> 1;
+    int rowStep = getRowStep(height, tryHarder);
+    for (int x = 0; x < maxLines; x++) {
+      int rowNumber = getRowNumber(x, middle, rowStep);
+      if (rowNumber < 0 || rowNumber >= height) {
+        return x;
+      }
+    }
+    return maxLines;
+  }
+
+
+  static int getRowNumber(int probe, int middle, int rowStep) {
+    int rowStepsAboveOrBelow = (probe + 1) >> 1;
+    boolean isAbove = (probe & 0x01) == 0;
+    return middle + rowStep * (isAbove ? rowStepsAboveOrBelow : -rowStepsAboveOrBelow);
+  }
+
+
   private Result doDecode(BinaryBitmap image,
                           Map<DecodeHintType,?> hints) throws NotFoundException {
     int width = image.getWidth();
     int height = image.getHeight();
     BitArray row = new BitArray(width);
+    RowRuns runs = new RowRuns();
 
     int middle = height >> 1;
     boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
-    int rowStep = Math.max(1, height >> (tryHarder ? 8 : 5));
-    int maxLines;
-    if (tryHarder) {
-      maxLines = height;
-    } else {
-      maxLines = 15;
-    }
-
-    for (int x = 0; x < maxLines; x++) {
+    int rowStep = getRowStep(height, tryHarder);
+    int probeCount = getProbeCount(height, tryHarder);
 
+    for (int x = 0; x < probeCount; x++) {
 
-      int rowStepsAboveOrBelow = (x + 1) >> 1;
-      boolean isAbove = (x & 0x01) == 0;
-      int rowNumber = middle + rowStep * (isAbove ? rowStepsAboveOrBelow : -rowStepsAboveOrBelow);
-      if (rowNumber < 0 || rowNumber >= height) {
 
-        break;
-      }
+      int rowNumber = getRowNumber(x, middle, rowStep);
 
 
       try {
@@ -99,12 +129,14 @@ public abstract class OneDReader implements Reader {
       } catch (NotFoundException nfe) {
         continue;
       }
+      runs.reset(row);
 
 
 
       for (int attempt = 0; attempt < 2; attempt++) {
         if (attempt == 1) {
           row.reverse();
+          runs.reverse();
 
 
 
@@ -118,17 +150,10 @@ public abstract class OneDReader implements Reader {
         }
         try {
 
-          Result result = decodeRow(rowNumber, row, hints);
+          Result result = decodeRow(rowNumber, row, runs, hints);
 
           if (attempt == 1) {
-
-            result.putMetadata(ResultMetadataType.ORIENTATION, 180);
-
-            ResultPoint[] points = result.getResultPoints();
-            if (points != null) {
-              points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
-              points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
-            }
+            reverseResult(result, width);
           }
           return result;
         } catch (ReaderException re) {
@@ -153,42 +178,51 @@ public abstract class OneDReader implements Reader {
     boolean isWhite = !row.get(start);
     int counterPosition = 0;
     int i = start;
-    while (i < end) {
-      if (row.get(i) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        counterPosition++;
-        if (counterPosition == numCounters) {
-          break;
-        } else {
-          counters[counterPosition] = 1;
-          isWhite = !isWhite;
-        }
-      }
-      i++;
+    while (i < end && counterPosition < numCounters) {
+      int next = isWhite ? row.getNextSet(i) : row.getNextUnset(i);
+      counters[counterPosition++] = next - i;
+      i = next;
+      isWhite = !isWhite;
     }
+    if (counterPosition < numCounters) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+  }
 
 
-    if (!(counterPosition == numCounters || (counterPosition == numCounters - 1 && i == end))) {
+  protected static void recordPattern(RowRuns runs,
+                                      int start,
+                                      int[] counters) throws NotFoundException {
+    int numCounters = counters.length;
+    Arrays.fill(counters, 0, numCounters, 0);
+    if (start >= runs.getSize()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    int run = runs.getRunAt(start);
+    counters[0] = runs.getRunEnd(run) - start;
+    int runCount = runs.getRunCount();
+    int counterPosition = 1;
+    while (counterPosition < numCounters && ++run < runCount) {
+      counters[counterPosition++] = runs.getRunLength(run);
+    }
+    if (counterPosition < numCounters) {
       throw NotFoundException.getNotFoundInstance();
     }
   }
 
   protected static void recordPatternInReverse(BitArray row, int start, int[] counters)
       throws NotFoundException {
+    recordPatternInReverse(new RowRuns(row), start, counters);
+  }
 
-    int numTransitionsLeft = counters.length;
-    boolean last = row.get(start);
-    while (start > 0 && numTransitionsLeft >= 0) {
-      if (row.get(--start) != last) {
-        numTransitionsLeft--;
-        last = !last;
-      }
-    }
-    if (numTransitionsLeft >= 0) {
+
+  protected static void recordPatternInReverse(RowRuns runs, int start, int[] counters)
+      throws NotFoundException {
+    int firstRun = runs.getRunAt(start) - counters.length;
+    if (firstRun <= 0) {
       throw NotFoundException.getNotFoundInstance();
     }
-    recordPattern(row, start + 1, counters);
+    recordPattern(runs, runs.getRunStart(firstRun), counters);
   }
 
 
@@ -230,4 +264,10 @@ public abstract class OneDReader implements Reader {
   public abstract Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException;
 
+
+  public Result decodeRow(int rowNumber, BitArray row, RowRuns runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, row, hints);
+  }
+
 }
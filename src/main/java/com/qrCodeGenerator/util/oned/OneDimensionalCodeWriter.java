@@ -4,8 +4,10 @@ package com.qrCodeGenerator.util.oned;
 
 import com.qrCodeGenerator.util.BarcodeFormat;
 import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.ModuleGrid;
 import com.qrCodeGenerator.util.Writer;
 import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitArray;
 import com.qrCodeGenerator.util.common.BitMatrix;
 
 import java.util.Map;
@@ -13,6 +15,8 @@ import java.util.Map;
 
 public abstract class OneDimensionalCodeWriter implements Writer {
 
+  private static final int MIN_BAR_HEIGHT = 50;
+
   private final int sidesMargin;
 
   protected OneDimensionalCodeWriter(int sidesMargin) {
@@ -45,6 +49,25 @@ public abstract class OneDimensionalCodeWriter implements Writer {
   }
 
 
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) {
+    if (contents.length() == 0) {
+      throw new IllegalArgumentException("Found empty contents");
+    }
+
+    byte[] code = encode(contents);
+    BitMatrix modules = new BitMatrix(code.length, 1);
+    for (int x = 0; x < code.length; x++) {
+      if (code[x] == 1) {
+        modules.set(x, 0);
+      }
+    }
+    int barHeight = Math.max(MIN_BAR_HEIGHT, (code.length + sidesMargin) * 15 / 100);
+    return new ModuleGrid(modules, format, sidesMargin / 2, 0, barHeight, null);
+  }
+
+
   private BitMatrix renderResult(byte[] code, int width, int height) {
     int inputWidth = code.length;
 
@@ -55,13 +78,13 @@ public abstract class OneDimensionalCodeWriter implements Writer {
     int multiple = outputWidth / fullWidth;
     int leftPadding = (outputWidth - (inputWidth * multiple)) / 2;
 
-    BitMatrix output = new BitMatrix(outputWidth, outputHeight);
+    BitArray row = new BitArray(outputWidth);
     for (int inputX = 0, outputX = leftPadding; inputX < inputWidth; inputX++, outputX += multiple) {
       if (code[inputX] == 1) {
-        output.setRegion(outputX, 0, multiple, outputHeight);
+        row.setRange(outputX, outputX + multiple);
       }
     }
-    return output;
+    return BitMatrix.fromRow(row, outputHeight);
   }
 
 
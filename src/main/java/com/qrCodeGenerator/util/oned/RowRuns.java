@@ -0,0 +1,137 @@
+package com.qrCodeGenerator.util.oned;
+
+import com.qrCodeGenerator.util.common.BitArray;
+
+import java.util.Arrays;
+
+
+public final class RowRuns {
+
+  private int[] bounds;
+  private int runCount;
+  private int size;
+  private boolean firstBlack;
+
+  public RowRuns() {
+    bounds = new int[64];
+  }
+
+  public RowRuns(BitArray row) {
+    this();
+    reset(row);
+  }
+
+
+  public void reset(BitArray row) {
+    size = row.getSize();
+    firstBlack = size > 0 && row.get(0);
+    bounds[0] = 0;
+    int count = 0;
+    int x = 0;
+    boolean black = firstBlack;
+    while (x < size) {
+      x = black ? row.getNextUnset(x) : row.getNextSet(x);
+      if (++count == bounds.length) {
+        bounds = Arrays.copyOf(bounds, bounds.length << 1);
+      }
+      bounds[count] = x;
+      black = !black;
+    }
+    runCount = count;
+  }
+
+
+  public void reverse() {
+    if (runCount > 0) {
+      firstBlack = isBlack(runCount - 1);
+    }
+    for (int i = 0, j = runCount; i <= j; i++, j--) {
+      int temp = bounds[i];
+      bounds[i] = size - bounds[j];
+      bounds[j] = size - temp;
+    }
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getRunCount() {
+    return runCount;
+  }
+
+  public int getRunStart(int run) {
+    return bounds[run];
+  }
+
+  public int getRunEnd(int run) {
+    return bounds[run + 1];
+  }
+
+  public int getRunLength(int run) {
+    return bounds[run + 1] - bounds[run];
+  }
+
+  public boolean isBlack(int run) {
+    return ((run & 0x01) == 0) == firstBlack;
+  }
+
+
+  public int getRunAt(int x) {
+    if (x < 0 || x >= size) {
+      throw new IndexOutOfBoundsException(Integer.toString(x));
+    }
+    int run = Arrays.binarySearch(bounds, 0, runCount, x);
+    return run >= 0 ? run : -run - 2;
+  }
+
+  public boolean get(int x) {
+    return isBlack(getRunAt(x));
+  }
+
+
+  public int getNextSet(int from) {
+    if (from >= size) {
+      return size;
+    }
+    int run = getRunAt(from);
+    return isBlack(run) ? from : getRunEnd(run);
+  }
+
+
+  public int getNextUnset(int from) {
+    if (from >= size) {
+      return size;
+    }
+    int run = getRunAt(from);
+    return isBlack(run) ? getRunEnd(run) : from;
+  }
+
+
+  public boolean isRange(int start, int end, boolean value) {
+    if (end < start || start < 0 || end > size) {
+      throw new IllegalArgumentException();
+    }
+    if (end == start) {
+      return true;
+    }
+    int run = getRunAt(start);
+    return isBlack(run) == value && getRunEnd(run) >= end;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(size + (size >> 3) + 1);
+    for (int run = 0; run < runCount; run++) {
+      char c = isBlack(run) ? 'X' : '.';
+      for (int x = bounds[run]; x < bounds[run + 1]; x++) {
+        if ((x & 0x07) == 0) {
+          result.append(' ');
+        }
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+
+}
@@ -0,0 +1,328 @@
+package com.qrCodeGenerator.util.oned;
+
+import com.qrCodeGenerator.util.BinaryBitmap;
+import com.qrCodeGenerator.util.DecodeHintType;
+import com.qrCodeGenerator.util.NotFoundException;
+import com.qrCodeGenerator.util.Reader;
+import com.qrCodeGenerator.util.ReaderException;
+import com.qrCodeGenerator.util.Result;
+import com.qrCodeGenerator.util.ResultMetadataType;
+import com.qrCodeGenerator.util.common.BitArray;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public final class ScanLineDecoder implements Reader {
+
+  private final Callable<? extends OneDReader> readerFactory;
+  private final ExecutorService executor;
+  private final int parallelism;
+
+  public ScanLineDecoder(Callable<? extends OneDReader> readerFactory) {
+    this(readerFactory, ForkJoinPool.commonPool());
+  }
+
+  public ScanLineDecoder(Callable<? extends OneDReader> readerFactory, ExecutorService executor) {
+    this(readerFactory, executor, executor instanceof ForkJoinPool ?
+        ((ForkJoinPool) executor).getParallelism() + 1 : Runtime.getRuntime().availableProcessors());
+  }
+
+
+  public ScanLineDecoder(Callable<? extends OneDReader> readerFactory, ExecutorService executor, int parallelism) {
+    if (readerFactory == null || executor == null) {
+      throw new IllegalArgumentException("Reader factory and executor must be non-null");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+    }
+    this.readerFactory = readerFactory;
+    this.executor = executor;
+    this.parallelism = parallelism;
+  }
+
+  public Result decode(BinaryBitmap image) throws NotFoundException {
+    return decode(image, null);
+  }
+
+
+  public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
+    Result result = scan(image, hints).getResult();
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+
+  public Scan scan(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
+    Map<DecodeHintType,?> rowHints = hints;
+    if (hints != null && hints.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK)) {
+      Map<DecodeHintType,Object> newHints = new EnumMap<DecodeHintType,Object>(DecodeHintType.class);
+      newHints.putAll(hints);
+      newHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+      rowHints = newHints;
+    }
+
+    RowProbe probe = new RowProbe(image, rowHints, tryHarder);
+    Result result = run(probe);
+    int rowsScanned = probe.getRowsScanned();
+    if (result == null && tryHarder && image.isRotateSupported()) {
+      BinaryBitmap rotatedImage = image.rotateCounterClockwise();
+      RowProbe rotated = new RowProbe(rotatedImage, rowHints, true);
+      result = run(rotated);
+      rowsScanned += rotated.getRowsScanned();
+      if (result != null) {
+        OneDReader.rotateResult(result, rotatedImage.getHeight());
+      }
+    }
+    if (result != null) {
+      result.putMetadata(ResultMetadataType.ROWS_SCANNED, rowsScanned);
+    }
+    return new Scan(result, rowsScanned);
+  }
+
+  public void reset() {
+
+  }
+
+  private Result run(final RowProbe probe) {
+    int workers = Math.min(parallelism, probe.getProbeCount());
+    if (workers == 0) {
+      return null;
+    }
+    List<Future<?>> futures = new ArrayList<Future<?>>(workers - 1);
+    try {
+      for (int i = 1; i < workers; i++) {
+        futures.add(executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            if (!probe.enter()) {
+              return;
+            }
+            try {
+              probe.probe(newReader());
+            } catch (RuntimeException re) {
+              probe.fail(re);
+            } catch (Error e) {
+              probe.fail(e);
+            } finally {
+              probe.exit();
+            }
+          }
+        }));
+      }
+      probe.probe(newReader());
+      cancel(futures);
+      probe.awaitWorkers();
+    } catch (InterruptedException ie) {
+      probe.stop();
+      cancel(futures);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while scanning rows", ie);
+    } catch (RuntimeException re) {
+      probe.stop();
+      cancel(futures);
+      throw re;
+    }
+    Throwable failure = probe.getFailure();
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    return probe.getResult();
+  }
+
+  private OneDReader newReader() {
+    OneDReader reader;
+    try {
+      reader = readerFactory.call();
+    } catch (Exception e) {
+      throw new IllegalStateException("Unable to create row reader", e);
+    }
+    if (reader == null) {
+      throw new IllegalStateException("Reader factory returned null");
+    }
+    return reader;
+  }
+
+  private static void cancel(List<? extends Future<?>> futures) {
+    for (Future<?> future : futures) {
+      future.cancel(false);
+    }
+  }
+
+
+  public static final class Scan {
+
+    private final Result result;
+    private final int rowsScanned;
+
+    Scan(Result result, int rowsScanned) {
+      this.result = result;
+      this.rowsScanned = rowsScanned;
+    }
+
+
+    public Result getResult() {
+      return result;
+    }
+
+
+    public int getRowsScanned() {
+      return rowsScanned;
+    }
+
+    @Override
+    public String toString() {
+      return "Scan[rows=" + rowsScanned + ", result=" + result + ']';
+    }
+
+  }
+
+
+  private static final class RowProbe {
+
+    private final BinaryBitmap image;
+    private final Map<DecodeHintType,?> hints;
+    private final int width;
+    private final int middle;
+    private final int rowStep;
+    private final int probeCount;
+    private final AtomicInteger nextProbe = new AtomicInteger();
+    private final AtomicInteger limit;
+    private final AtomicInteger rowsScanned = new AtomicInteger();
+    private int bestProbe = Integer.MAX_VALUE;
+    private Result bestResult;
+    private Throwable failure;
+    private int activeWorkers;
+    private boolean closed;
+
+    RowProbe(BinaryBitmap image, Map<DecodeHintType,?> hints, boolean tryHarder) {
+      this.image = image;
+      this.hints = hints;
+      width = image.getWidth();
+      int height = image.getHeight();
+      middle = height >> 1;
+      rowStep = OneDReader.getRowStep(height, tryHarder);
+      probeCount = OneDReader.getProbeCount(height, tryHarder);
+      limit = new AtomicInteger(probeCount);
+    }
+
+    int getProbeCount() {
+      return probeCount;
+    }
+
+    int getRowsScanned() {
+      return rowsScanned.get();
+    }
+
+    synchronized Result getResult() {
+      return bestResult;
+    }
+
+    synchronized Throwable getFailure() {
+      return failure;
+    }
+
+    void stop() {
+      limit.set(0);
+    }
+
+    synchronized boolean enter() {
+      if (closed) {
+        return false;
+      }
+      activeWorkers++;
+      return true;
+    }
+
+    synchronized void exit() {
+      if (--activeWorkers == 0) {
+        notifyAll();
+      }
+    }
+
+
+    synchronized void awaitWorkers() throws InterruptedException {
+      closed = true;
+      while (activeWorkers > 0) {
+        wait();
+      }
+    }
+
+    void fail(Throwable t) {
+      stop();
+      synchronized (this) {
+        if (failure == null) {
+          failure = t;
+        }
+      }
+    }
+
+
+    void probe(OneDReader reader) {
+      BinaryBitmap bitmap = image.duplicate();
+      BitArray row = new BitArray(width);
+      RowRuns runs = new RowRuns();
+      int x;
+      while ((x = nextProbe.getAndIncrement()) < limit.get()) {
+        int rowNumber = OneDReader.getRowNumber(x, middle, rowStep);
+        try {
+          row = bitmap.getBlackRow(rowNumber, row);
+        } catch (NotFoundException nfe) {
+          continue;
+        }
+        rowsScanned.incrementAndGet();
+        runs.reset(row);
+        Result result = decodeRow(reader, rowNumber, row, runs);
+        if (result != null) {
+          found(x, result);
+        }
+      }
+    }
+
+    private Result decodeRow(OneDReader reader, int rowNumber, BitArray row, RowRuns runs) {
+      for (int attempt = 0; attempt < 2; attempt++) {
+        if (attempt == 1) {
+          row.reverse();
+          runs.reverse();
+        }
+        try {
+          Result result = reader.decodeRow(rowNumber, row, runs, hints);
+          if (attempt == 1) {
+            OneDReader.reverseResult(result, width);
+          }
+          return result;
+        } catch (ReaderException re) {
+
+        }
+      }
+      return null;
+    }
+
+
+    private synchronized void found(int x, Result result) {
+      if (x < bestProbe) {
+        bestProbe = x;
+        bestResult = result;
+      }
+      int current = limit.get();
+      while (x < current && !limit.compareAndSet(current, x)) {
+        current = limit.get();
+      }
+    }
+
+  }
+
+}
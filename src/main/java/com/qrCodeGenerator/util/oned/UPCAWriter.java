@@ -4,6 +4,7 @@ package com.qrCodeGenerator.util.oned;
 
 import com.qrCodeGenerator.util.BarcodeFormat;
 import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.ModuleGrid;
 import com.qrCodeGenerator.util.Writer;
 import com.qrCodeGenerator.util.WriterException;
 import com.qrCodeGenerator.util.common.BitMatrix;
@@ -32,6 +33,18 @@ public class UPCAWriter implements Writer {
   }
 
 
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) {
+    if (format != BarcodeFormat.UPC_A) {
+      throw new IllegalArgumentException("Can only encode UPC-A, but got " + format);
+    }
+    ModuleGrid grid = subWriter.encodeModules(preencode(contents), BarcodeFormat.EAN_13, hints);
+    return new ModuleGrid(grid.getModules(), BarcodeFormat.UPC_A, grid.getQuietZoneX(), grid.getQuietZoneY(),
+        grid.getModuleAspectRatio(), grid.getMetadata());
+  }
+
+
   private static String preencode(String contents) {
     int length = contents.length();
     if (length == 11) {
@@ -7,7 +7,6 @@ import com.qrCodeGenerator.util.NotFoundException;
 import com.qrCodeGenerator.util.Result;
 import com.qrCodeGenerator.util.ResultMetadataType;
 import com.qrCodeGenerator.util.ResultPoint;
-import com.qrCodeGenerator.util.common.BitArray;
 
 import java.util.EnumMap;
 import java.util.Map;
@@ -22,13 +21,13 @@ final class UPCEANExtensionSupport {
   private final int[] decodeMiddleCounters = new int[4];
   private final StringBuilder decodeRowStringBuffer = new StringBuilder();
 
-  Result decodeRow(int rowNumber, BitArray row, int rowOffset) throws NotFoundException {
+  Result decodeRow(int rowNumber, RowRuns runs, int rowOffset) throws NotFoundException {
 
-    int[] extensionStartRange = UPCEANReader.findGuardPattern(row, rowOffset, false, EXTENSION_START_PATTERN);
+    int[] extensionStartRange = UPCEANReader.findGuardPattern(runs, rowOffset, false, EXTENSION_START_PATTERN);
 
     StringBuilder result = decodeRowStringBuffer;
     result.setLength(0);
-    int end = decodeMiddle(row, extensionStartRange, result);
+    int end = decodeMiddle(runs, extensionStartRange, result);
 
     String resultString = result.toString();
     Map<ResultMetadataType,Object> extensionData = parseExtensionString(resultString);
@@ -47,7 +46,7 @@ final class UPCEANExtensionSupport {
     return extensionResult;
   }
 
-  int decodeMiddle(BitArray row,
+  int decodeMiddle(RowRuns runs,
                    int[] startRange,
                    StringBuilder resultString) throws NotFoundException {
     int[] counters = decodeMiddleCounters;
@@ -55,13 +54,13 @@ final class UPCEANExtensionSupport {
     counters[1] = 0;
     counters[2] = 0;
     counters[3] = 0;
-    int end = row.getSize();
+    int end = runs.getSize();
     int rowOffset = startRange[1];
 
     int lgPatternFound = 0;
 
     for (int x = 0; x < 5 && rowOffset < end; x++) {
-      int bestMatch = UPCEANReader.decodeDigit(row, counters, rowOffset, UPCEANReader.L_AND_G_PATTERNS);
+      int bestMatch = UPCEANReader.decodeDigit(runs, counters, rowOffset, UPCEANReader.L_AND_G_PATTERNS);
       resultString.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -71,8 +70,8 @@ final class UPCEANExtensionSupport {
       }
       if (x != 4) {
 
-        rowOffset = row.getNextSet(rowOffset);
-        rowOffset = row.getNextUnset(rowOffset);
+        rowOffset = runs.getNextSet(rowOffset);
+        rowOffset = runs.getNextUnset(rowOffset);
       }
     }
 
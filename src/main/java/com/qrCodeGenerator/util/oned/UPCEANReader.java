@@ -72,14 +72,14 @@ public abstract class UPCEANReader extends OneDReader {
     eanManSupport = new EANManufacturerOrgSupport();
   }
 
-  static int[] findStartGuardPattern(BitArray row) throws NotFoundException {
+  static int[] findStartGuardPattern(RowRuns runs) throws NotFoundException {
     boolean foundStart = false;
     int[] startRange = null;
     int nextStart = 0;
     int[] counters = new int[START_END_PATTERN.length];
     while (!foundStart) {
       Arrays.fill(counters, 0, START_END_PATTERN.length, 0);
-      startRange = findGuardPattern(row, nextStart, false, START_END_PATTERN, counters);
+      startRange = findGuardPattern(runs, nextStart, false, START_END_PATTERN, counters);
       int start = startRange[0];
       nextStart = startRange[1];
 
@@ -87,7 +87,7 @@ public abstract class UPCEANReader extends OneDReader {
 
       int quietStart = start - (nextStart - start);
       if (quietStart >= 0) {
-        foundStart = row.isRange(quietStart, start, false);
+        foundStart = runs.isRange(quietStart, start, false);
       }
     }
     return startRange;
@@ -96,7 +96,13 @@ public abstract class UPCEANReader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
-    return decodeRow(rowNumber, row, findStartGuardPattern(row), hints);
+    return decodeRow(rowNumber, row, new RowRuns(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, BitArray row, RowRuns runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, runs, findStartGuardPattern(runs), hints);
   }
 
 
@@ -105,6 +111,15 @@ public abstract class UPCEANReader extends OneDReader {
                           int[] startGuardRange,
                           Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, new RowRuns(row), startGuardRange, hints);
+  }
+
+
+  public Result decodeRow(int rowNumber,
+                          RowRuns runs,
+                          int[] startGuardRange,
+                          Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
 
     ResultPointCallback resultPointCallback = hints == null ? null :
         (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
@@ -117,7 +132,7 @@ public abstract class UPCEANReader extends OneDReader {
 
     StringBuilder result = decodeRowStringBuffer;
     result.setLength(0);
-    int endStart = decodeMiddle(row, startGuardRange, result);
+    int endStart = decodeMiddle(runs, startGuardRange, result);
 
     if (resultPointCallback != null) {
       resultPointCallback.foundPossibleResultPoint(new ResultPoint(
@@ -125,7 +140,7 @@ public abstract class UPCEANReader extends OneDReader {
       ));
     }
 
-    int[] endRange = decodeEnd(row, endStart);
+    int[] endRange = decodeEnd(runs, endStart);
 
     if (resultPointCallback != null) {
       resultPointCallback.foundPossibleResultPoint(new ResultPoint(
@@ -138,7 +153,7 @@ public abstract class UPCEANReader extends OneDReader {
 
     int end = endRange[1];
     int quietEnd = end + (end - endRange[0]);
-    if (quietEnd >= row.getSize() || !row.isRange(end, quietEnd, false)) {
+    if (quietEnd >= runs.getSize() || !runs.isRange(end, quietEnd, false)) {
       throw NotFoundException.getNotFoundInstance();
     }
 
@@ -158,7 +173,7 @@ public abstract class UPCEANReader extends OneDReader {
         format);
 
     try {
-      Result extensionResult = extensionReader.decodeRow(rowNumber, row, endRange[1]);
+      Result extensionResult = extensionReader.decodeRow(rowNumber, runs, endRange[1]);
       decodeResult.putAllMetadata(extensionResult.getResultMetadata());
       decodeResult.addResultPoints(extensionResult.getResultPoints());
     } catch (ReaderException re) {
@@ -206,56 +221,57 @@ public abstract class UPCEANReader extends OneDReader {
     return sum % 10 == 0;
   }
 
-  int[] decodeEnd(BitArray row, int endStart) throws NotFoundException {
-    return findGuardPattern(row, endStart, false, START_END_PATTERN);
+  int[] decodeEnd(RowRuns runs, int endStart) throws NotFoundException {
+    return findGuardPattern(runs, endStart, false, START_END_PATTERN);
   }
 
-  static int[] findGuardPattern(BitArray row,
+  static int[] findGuardPattern(RowRuns runs,
                                 int rowOffset,
                                 boolean whiteFirst,
                                 int[] pattern) throws NotFoundException {
-    return findGuardPattern(row, rowOffset, whiteFirst, pattern, new int[pattern.length]);
+    return findGuardPattern(runs, rowOffset, whiteFirst, pattern, new int[pattern.length]);
   }
 
 
-  static int[] findGuardPattern(BitArray row,
+  static int[] findGuardPattern(RowRuns runs,
                                 int rowOffset,
                                 boolean whiteFirst,
                                 int[] pattern,
                                 int[] counters) throws NotFoundException {
     int patternLength = pattern.length;
-    int width = row.getSize();
-    boolean isWhite = whiteFirst;
-    rowOffset = whiteFirst ? row.getNextUnset(rowOffset) : row.getNextSet(rowOffset);
+    int width = runs.getSize();
+    rowOffset = whiteFirst ? runs.getNextUnset(rowOffset) : runs.getNextSet(rowOffset);
+    if (rowOffset >= width) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    int runCount = runs.getRunCount();
+    int run = runs.getRunAt(rowOffset);
+    counters[0] += runs.getRunEnd(run) - rowOffset;
     int counterPosition = 0;
     int patternStart = rowOffset;
-    for (int x = rowOffset; x < width; x++) {
-      if (row.get(x) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
-            return new int[]{patternStart, x};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, patternLength - 2);
-          counters[patternLength - 2] = 0;
-          counters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
+    while (++run < runCount) {
+      int x = runs.getRunStart(run);
+      if (counterPosition == patternLength - 1) {
+        if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+          return new int[]{patternStart, x};
         }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+        patternStart += counters[0] + counters[1];
+        System.arraycopy(counters, 2, counters, 0, patternLength - 2);
+        counters[patternLength - 2] = 0;
+        counters[patternLength - 1] = 0;
+        counterPosition--;
+      } else {
+        counterPosition++;
       }
+      counters[counterPosition] = runs.getRunLength(run);
     }
     throw NotFoundException.getNotFoundInstance();
   }
 
 
-  static int decodeDigit(BitArray row, int[] counters, int rowOffset, int[][] patterns)
+  static int decodeDigit(RowRuns runs, int[] counters, int rowOffset, int[][] patterns)
       throws NotFoundException {
-    recordPattern(row, rowOffset, counters);
+    recordPattern(runs, rowOffset, counters);
     int bestVariance = MAX_AVG_VARIANCE;
     int bestMatch = -1;
     int max = patterns.length;
@@ -278,7 +294,7 @@ public abstract class UPCEANReader extends OneDReader {
   abstract BarcodeFormat getBarcodeFormat();
 
 
-  protected abstract int decodeMiddle(BitArray row,
+  protected abstract int decodeMiddle(RowRuns runs,
                                       int[] startRange,
                                       StringBuilder resultString) throws NotFoundException;
 
@@ -6,7 +6,6 @@ import com.qrCodeGenerator.util.BarcodeFormat;
 import com.qrCodeGenerator.util.ChecksumException;
 import com.qrCodeGenerator.util.FormatException;
 import com.qrCodeGenerator.util.NotFoundException;
-import com.qrCodeGenerator.util.common.BitArray;
 
 
 public final class UPCEReader extends UPCEANReader {
@@ -27,20 +26,20 @@ public final class UPCEReader extends UPCEANReader {
   }
 
   @Override
-  protected int decodeMiddle(BitArray row, int[] startRange, StringBuilder result)
+  protected int decodeMiddle(RowRuns runs, int[] startRange, StringBuilder result)
       throws NotFoundException {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
     counters[2] = 0;
     counters[3] = 0;
-    int end = row.getSize();
+    int end = runs.getSize();
     int rowOffset = startRange[1];
 
     int lgPatternFound = 0;
 
     for (int x = 0; x < 6 && rowOffset < end; x++) {
-      int bestMatch = decodeDigit(row, counters, rowOffset, L_AND_G_PATTERNS);
+      int bestMatch = decodeDigit(runs, counters, rowOffset, L_AND_G_PATTERNS);
       result.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -56,8 +55,8 @@ public final class UPCEReader extends UPCEANReader {
   }
 
   @Override
-  protected int[] decodeEnd(BitArray row, int endStart) throws NotFoundException {
-    return findGuardPattern(row, endStart, true, MIDDLE_END_PATTERN);
+  protected int[] decodeEnd(RowRuns runs, int endStart) throws NotFoundException {
+    return findGuardPattern(runs, endStart, true, MIDDLE_END_PATTERN);
   }
 
   @Override
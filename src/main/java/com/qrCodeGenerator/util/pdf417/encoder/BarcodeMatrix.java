@@ -2,6 +2,9 @@
 
 package com.qrCodeGenerator.util.pdf417.encoder;
 
+import com.qrCodeGenerator.util.common.BitArray;
+import com.qrCodeGenerator.util.common.BitMatrix;
+
 
 final class BarcodeMatrix {
 
@@ -13,21 +16,16 @@ final class BarcodeMatrix {
 
   BarcodeMatrix(int height, int width) {
     matrix = new BarcodeRow[height + 2];
-
+    this.width = (width + 4) * 17 + 1;
     for (int i = 0, matrixLength = matrix.length; i < matrixLength; i++) {
-      matrix[i] = new BarcodeRow((width + 4) * 17 + 1);
+      matrix[i] = new BarcodeRow(this.width);
     }
-    this.width = width * 17;
     this.height = height + 2;
     this.currentRow = 0;
   }
 
-  void set(int x, int y, byte value) {
-    matrix[y].set(x, value);
-  }
-
   void setMatrix(int x, int y, boolean black) {
-    set(x, y, (byte) (black ? 1 : 0));
+    matrix[y].set(x, black);
   }
 
   void startRow() {
@@ -38,20 +36,25 @@ final class BarcodeMatrix {
     return matrix[currentRow];
   }
 
-  byte[][] getMatrix() {
-    return getScaledMatrix(1, 1);
+
+  int getWidth() {
+    return width;
+  }
+
+  int getHeight() {
+    return height;
   }
 
-  byte[][] getScaledMatrix(int Scale) {
-    return getScaledMatrix(Scale, Scale);
+  BitArray getRow(int y) {
+    return matrix[y].getRow();
   }
 
-  byte[][] getScaledMatrix(int xScale, int yScale) {
-    byte[][] matrixOut = new byte[height * yScale][width * xScale];
-    int yMax = height * yScale;
-    for (int ii = 0; ii < yMax; ii++) {
-      matrixOut[yMax - ii - 1] = matrix[ii / yScale].getScaledRow(xScale);
+
+  BitMatrix toBitMatrix() {
+    BitMatrix output = new BitMatrix(width, height);
+    for (int y = 0; y < height; y++) {
+      output.setRow(y, matrix[y].getRow());
     }
-    return matrixOut;
+    return output;
   }
 }
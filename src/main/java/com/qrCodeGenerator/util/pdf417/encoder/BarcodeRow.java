@@ -2,46 +2,50 @@
 
 package com.qrCodeGenerator.util.pdf417.encoder;
 
+import com.qrCodeGenerator.util.common.BitArray;
+
 
 final class BarcodeRow {
 
-  private final byte[] row;
+  private final BitArray row;
 
   private int currentLocation;
 
 
   BarcodeRow(int width) {
-    this.row = new byte[width];
+    this.row = new BitArray(width);
     currentLocation = 0;
   }
 
 
-  void set(int x, byte value) {
-    row[x] = value;
+  void set(int x, boolean black) {
+    if (row.get(x) != black) {
+      row.flip(x);
+    }
   }
 
 
-  void set(int x, boolean black) {
-    row[x] = (byte) (black ? 1 : 0);
+  void addBar(boolean black, int width) {
+    if (black) {
+      row.setRange(currentLocation, currentLocation + width);
+    }
+    currentLocation += width;
   }
 
 
-  void addBar(boolean black, int width) {
-    for (int ii = 0; ii < width; ii++) {
-      set(currentLocation++, black);
+  void addPattern(int pattern, int length) {
+    int bits = Integer.reverse(pattern) >>> (32 - length);
+    int[] words = row.getBitArray();
+    int offset = currentLocation & 0x1F;
+    words[currentLocation >> 5] |= bits << offset;
+    if (offset + length > 32) {
+      words[(currentLocation >> 5) + 1] |= bits >>> (32 - offset);
     }
+    currentLocation += length;
   }
 
-  byte[] getRow() {
+  BitArray getRow() {
     return row;
   }
 
-
-  byte[] getScaledRow(int scale) {
-    byte[] output = new byte[row.length * scale];
-    for (int i = 0; i < output.length; i++) {
-      output[i] = row[i / scale];
-    }
-    return output;
-  }
 }
@@ -0,0 +1,62 @@
+package com.qrCodeGenerator.util.pdf417.encoder;
+
+import java.util.Arrays;
+
+
+final class CodewordBuffer {
+
+  private int[] codewords;
+  private int size;
+
+  CodewordBuffer() {
+    this(64);
+  }
+
+  CodewordBuffer(int capacity) {
+    codewords = new int[Math.max(1, capacity)];
+  }
+
+  void append(int codeword) {
+    if (size == codewords.length) {
+      ensureCapacity(size + 1);
+    }
+    codewords[size++] = codeword;
+  }
+
+  void set(int index, int codeword) {
+    codewords[index] = codeword;
+  }
+
+  int get(int index) {
+    return codewords[index];
+  }
+
+  int getSize() {
+    return size;
+  }
+
+  void setSize(int size) {
+    ensureCapacity(size);
+    this.size = size;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+
+  int[] getCodewords() {
+    return codewords;
+  }
+
+  void ensureCapacity(int capacity) {
+    if (capacity > codewords.length) {
+      codewords = Arrays.copyOf(codewords, Math.max(capacity, codewords.length << 1));
+    }
+  }
+
+  int[] toArray() {
+    return Arrays.copyOf(codewords, size);
+  }
+
+}
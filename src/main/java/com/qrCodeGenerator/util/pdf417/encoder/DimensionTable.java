@@ -0,0 +1,132 @@
+package com.qrCodeGenerator.util.pdf417.encoder;
+
+import com.qrCodeGenerator.util.WriterException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+final class DimensionTable {
+
+  private static final int MAX_CODEWORDS = 929;
+  private static final int NUM_LEVELS = 9;
+  private static final int MAX_TABLES = 32;
+
+  private static final int MODULE_WIDTH_NUMERATOR = 357;
+  private static final int ROW_HEIGHT_DENOMINATOR = 2000;
+  private static final int PREFERRED_RATIO = 3;
+
+  private static final int UNKNOWN = 0;
+  private static final int NO_FIT = -1;
+
+  private static final ConcurrentMap<Long,DimensionTable> TABLES = new ConcurrentHashMap<Long,DimensionTable>();
+
+  private final int[] entries;
+
+  private DimensionTable() {
+    entries = new int[MAX_CODEWORDS * NUM_LEVELS];
+  }
+
+
+  static int[] determineDimensions(int sourceCodeWords,
+                                   int errorCorrectionCodeWords,
+                                   int minCols,
+                                   int maxCols,
+                                   int minRows,
+                                   int maxRows) throws WriterException {
+    int level = Integer.numberOfTrailingZeros(errorCorrectionCodeWords) - 1;
+    if (sourceCodeWords < 0 || sourceCodeWords >= MAX_CODEWORDS ||
+        Integer.bitCount(errorCorrectionCodeWords) != 1 || level < 0 || level >= NUM_LEVELS) {
+      return unpack(search(sourceCodeWords, errorCorrectionCodeWords, minCols, maxCols, minRows, maxRows));
+    }
+    DimensionTable table = getInstance(minCols, maxCols, minRows, maxRows);
+    if (table == null) {
+      return unpack(search(sourceCodeWords, errorCorrectionCodeWords, minCols, maxCols, minRows, maxRows));
+    }
+    int index = level * MAX_CODEWORDS + sourceCodeWords;
+    int entry = table.entries[index];
+    if (entry == UNKNOWN) {
+      entry = search(sourceCodeWords, errorCorrectionCodeWords, minCols, maxCols, minRows, maxRows);
+      table.entries[index] = entry;
+    }
+    return unpack(entry);
+  }
+
+  private static DimensionTable getInstance(int minCols, int maxCols, int minRows, int maxRows) {
+    if ((minCols | maxCols | minRows | maxRows) < 0 ||
+        minCols > 0xFFFF || maxCols > 0xFFFF || minRows > 0xFFFF || maxRows > 0xFFFF) {
+      return null;
+    }
+    Long key = ((long) minCols << 48) | ((long) maxCols << 32) | ((long) minRows << 16) | maxRows;
+    DimensionTable table = TABLES.get(key);
+    if (table == null) {
+      if (TABLES.size() >= MAX_TABLES) {
+        return null;
+      }
+      table = new DimensionTable();
+      DimensionTable existing = TABLES.putIfAbsent(key, table);
+      if (existing != null) {
+        table = existing;
+      }
+    }
+    return table;
+  }
+
+
+  private static int search(int sourceCodeWords,
+                            int errorCorrectionCodeWords,
+                            int minCols,
+                            int maxCols,
+                            int minRows,
+                            int maxRows) {
+    int bestCols = 0;
+    int bestRows = 0;
+    long bestDeviation = 0;
+
+    for (int cols = minCols; cols <= maxCols; cols++) {
+
+      int rows = PDF417.calculateNumberOfRows(sourceCodeWords, errorCorrectionCodeWords, cols);
+
+      if (rows < minRows) {
+        break;
+      }
+
+      if (rows > maxRows) {
+        continue;
+      }
+
+      long deviation = Math.abs((long) (17 * cols + 69) * MODULE_WIDTH_NUMERATOR -
+          (long) PREFERRED_RATIO * ROW_HEIGHT_DENOMINATOR * rows);
+
+
+      if (bestRows != 0 && deviation * bestRows > bestDeviation * rows) {
+        continue;
+      }
+
+      bestCols = cols;
+      bestRows = rows;
+      bestDeviation = deviation;
+    }
+
+    if (bestRows == 0) {
+      int rows = PDF417.calculateNumberOfRows(sourceCodeWords, errorCorrectionCodeWords, minCols);
+      if (rows < minRows) {
+        bestCols = minCols;
+        bestRows = minRows;
+      }
+    }
+
+    if (bestRows <= 0 || bestCols <= 0 || bestCols > 0xFFFF || bestRows > 0xFFFF) {
+      return NO_FIT;
+    }
+    return (bestCols << 16) | bestRows;
+  }
+
+  private static int[] unpack(int entry) throws WriterException {
+    if (entry == NO_FIT) {
+      throw new WriterException("Unable to fit message in columns");
+    }
+    return new int[] {entry >>> 16, entry & 0xFFFF};
+  }
+
+}
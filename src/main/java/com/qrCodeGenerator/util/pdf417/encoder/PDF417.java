@@ -483,9 +483,8 @@ final class PDF417 {
           0x10794, 0x10fb4, 0x10792, 0x10fb2, 0x1c7ea}};
 
   public static final float PREFERRED_RATIO = 3.0f;
-  private static final float DEFAULT_MODULE_WIDTH = 0.357f;
-  private static final float HEIGHT = 2.0f;
 
+  private final CodewordBuffer codewords = new CodewordBuffer(256);
   private BarcodeMatrix barcodeMatrix;
   private boolean compact;
   private Compaction compaction;
@@ -499,12 +498,18 @@ final class PDF417 {
   }
 
   PDF417(boolean compact) {
+    reset(compact);
+  }
+
+
+  void reset(boolean compact) {
     this.compact = compact;
     compaction = Compaction.AUTO;
     minCols = 2;
     maxCols = 30;
     maxRows = 30;
     minRows = 2;
+    barcodeMatrix = null;
   }
 
   BarcodeMatrix getBarcodeMatrix() {
@@ -532,7 +537,7 @@ final class PDF417 {
   }
 
 
-  private static int calculateNumberOfRows(int m, int k, int c) {
+  static int calculateNumberOfRows(int m, int k, int c) {
     int r = ((m + 1 + k) / c) + 1;
     if (c * r >= (m + 1 + k + c)) {
       r--;
@@ -554,25 +559,10 @@ final class PDF417 {
   }
 
   private static void encodeChar(int pattern, int len, BarcodeRow logic) {
-    int map = 1 << len - 1;
-    boolean last = (pattern & map) != 0;
-    int width = 0;
-    for (int i = 0; i < len; i++) {
-      boolean black = (pattern & map) != 0;
-      if (last == black) {
-        width++;
-      } else {
-        logic.addBar(last, width);
-
-        last = black;
-        width = 1;
-      }
-      map >>= 1;
-    }
-    logic.addBar(last, width);
+    logic.addPattern(pattern, len);
   }
 
-  private void encodeLowLevel(CharSequence fullCodewords,
+  private void encodeLowLevel(int[] fullCodewords,
                               int c,
                               int r,
                               int errorCorrectionLevel,
@@ -601,7 +591,7 @@ final class PDF417 {
       encodeChar(pattern, 17, logic.getCurrentRow());
 
       for (int x = 0; x < c; x++) {
-        pattern = CODEWORD_TABLE[cluster][fullCodewords.charAt(idx)];
+        pattern = CODEWORD_TABLE[cluster][fullCodewords[idx]];
         encodeChar(pattern, 17, logic.getCurrentRow());
         idx++;
       }
@@ -622,8 +612,10 @@ final class PDF417 {
 
 
     int errorCorrectionCodeWords = PDF417ErrorCorrection.getErrorCorrectionCodewordCount(errorCorrectionLevel);
-    String highLevel = PDF417HighLevelEncoder.encodeHighLevel(msg, compaction);
-    int sourceCodeWords = highLevel.length();
+    codewords.clear();
+    codewords.append(0);
+    PDF417HighLevelEncoder.encodeHighLevel(msg, compaction, codewords);
+    int sourceCodeWords = codewords.getSize() - 1;
 
     int[] dimension = determineDimensions(sourceCodeWords, errorCorrectionCodeWords);
 
@@ -638,64 +630,24 @@ final class PDF417 {
           "Encoded message contains to many code words, message to big (" + msg.length() + " bytes)");
     }
     int n = sourceCodeWords + pad + 1;
-    StringBuilder sb = new StringBuilder(n);
-    sb.append((char) n);
-    sb.append(highLevel);
+    codewords.set(0, n);
     for (int i = 0; i < pad; i++) {
-      sb.append((char) 900);
+      codewords.append(900);
     }
-    String dataCodewords = sb.toString();
 
 
-    String ec = PDF417ErrorCorrection.generateErrorCorrection(dataCodewords, errorCorrectionLevel);
-    String fullCodewords = dataCodewords + ec;
+    codewords.setSize(n + errorCorrectionCodeWords);
+    PDF417ErrorCorrection.generateErrorCorrection(codewords.getCodewords(), n, errorCorrectionLevel);
 
 
     barcodeMatrix = new BarcodeMatrix(rows, cols);
-    encodeLowLevel(fullCodewords, cols, rows, errorCorrectionLevel, barcodeMatrix);
+    encodeLowLevel(codewords.getCodewords(), cols, rows, errorCorrectionLevel, barcodeMatrix);
   }
 
 
   int[] determineDimensions(int sourceCodeWords, int errorCorrectionCodeWords) throws WriterException {
-    float ratio = 0.0f;
-    int[] dimension = null;
-
-    for (int cols = minCols; cols <= maxCols; cols++) {
-
-      int rows = calculateNumberOfRows(sourceCodeWords, errorCorrectionCodeWords, cols);
-
-      if (rows < minRows) {
-        break;
-      }
-
-      if (rows > maxRows) {
-        continue;
-      }
-
-      float newRatio = ((17 * cols + 69) * DEFAULT_MODULE_WIDTH) / (rows * HEIGHT);
-
-
-      if (dimension != null && Math.abs(newRatio - PREFERRED_RATIO) > Math.abs(ratio - PREFERRED_RATIO)) {
-        continue;
-      }
-
-      ratio = newRatio;
-      dimension = new int[] {cols, rows};
-    }
-
-
-     if (dimension == null) {
-       int rows = calculateNumberOfRows(sourceCodeWords, errorCorrectionCodeWords, minCols);
-       if (rows < minRows) {
-         dimension = new int[]{minCols, minRows};
-       }
-     }
-
-    if (dimension == null) {
-      throw new WriterException("Unable to fit message in columns");
-    }
-
-    return dimension;
+    return DimensionTable.determineDimensions(sourceCodeWords, errorCorrectionCodeWords,
+        minCols, maxCols, minRows, maxRows);
   }
 
 
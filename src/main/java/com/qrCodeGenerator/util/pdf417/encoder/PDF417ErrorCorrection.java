@@ -10,6 +10,10 @@ import com.qrCodeGenerator.util.WriterException;
 final class PDF417ErrorCorrection {
 
 
+  private static final int MODULUS = 929;
+
+  private static final int[][] NEGATED_COEFFICIENTS;
+
   private static final int[][] EC_COEFFICIENTS = {
       {27, 917},
       {522, 568, 723, 809},
@@ -102,6 +106,19 @@ final class PDF417ErrorCorrection {
           223, 849, 647, 63, 310, 863, 251, 366, 304, 282, 738, 675,
           410, 389, 244, 31, 121, 303, 263}};
 
+  static {
+    NEGATED_COEFFICIENTS = new int[EC_COEFFICIENTS.length][];
+    for (int level = 0; level < EC_COEFFICIENTS.length; level++) {
+      int[] coefficients = EC_COEFFICIENTS[level];
+      int[] negated = new int[coefficients.length];
+      for (int j = 0; j < coefficients.length; j++) {
+        negated[j] = (MODULUS - coefficients[j]) % MODULUS;
+      }
+      NEGATED_COEFFICIENTS[level] = negated;
+    }
+  }
+
+
   private PDF417ErrorCorrection() {
   }
 
@@ -134,31 +151,25 @@ final class PDF417ErrorCorrection {
   }
 
 
-  static String generateErrorCorrection(CharSequence dataCodewords, int errorCorrectionLevel) {
+  static void generateErrorCorrection(int[] codewords, int numDataCodewords, int errorCorrectionLevel) {
     int k = getErrorCorrectionCodewordCount(errorCorrectionLevel);
-    char[] e = new char[k];
-    int sld = dataCodewords.length();
-    for (int i = 0; i < sld; i++) {
-      int t1 = (dataCodewords.charAt(i) + e[e.length - 1]) % 929;
-      int t2;
-      int t3;
-      for (int j = k - 1; j >= 1; j--) {
-        t2 = (t1 * EC_COEFFICIENTS[errorCorrectionLevel][j]) % 929;
-        t3 = 929 - t2;
-        e[j] = (char) ((e[j - 1] + t3) % 929);
+    int[] negated = NEGATED_COEFFICIENTS[errorCorrectionLevel];
+    int[] e = new int[k];
+    int[] next = new int[k];
+    for (int i = 0; i < numDataCodewords; i++) {
+      int t1 = (codewords[i] + e[k - 1]) % MODULUS;
+      next[0] = t1 * negated[0];
+      for (int j = 1; j < k; j++) {
+        next[j] = e[j - 1] + t1 * negated[j];
       }
-      t2 = (t1 * EC_COEFFICIENTS[errorCorrectionLevel][0]) % 929;
-      t3 = 929 - t2;
-      e[0] = (char) (t3 % 929);
+      int[] swap = e;
+      e = next;
+      next = swap;
     }
-    StringBuilder sb = new StringBuilder(k);
     for (int j = k - 1; j >= 0; j--) {
-      if (e[j] != 0) {
-        e[j] = (char) (929 - e[j]);
-      }
-      sb.append(e[j]);
+      int value = e[j] % MODULUS;
+      codewords[numDataCodewords + k - 1 - j] = value == 0 ? 0 : MODULUS - value;
     }
-    return sb.toString();
   }
 
 }
@@ -88,12 +88,10 @@ final class PDF417HighLevelEncoder {
   }
 
 
-  static String encodeHighLevel(String msg, Compaction compaction) throws WriterException {
+  static void encodeHighLevel(String msg, Compaction compaction, CodewordBuffer codewords)
+      throws WriterException {
     byte[] bytes = null;
 
-
-    StringBuilder sb = new StringBuilder(msg.length());
-
     int len = msg.length();
     int p = 0;
     int encodingMode = TEXT_COMPACTION;
@@ -101,36 +99,36 @@ final class PDF417HighLevelEncoder {
 
 
     if (compaction == Compaction.TEXT) {
-      encodeText(msg, p, len, sb, textSubMode);
+      encodeText(msg, p, len, codewords, textSubMode);
 
     } else if (compaction == Compaction.BYTE) {
       encodingMode = BYTE_COMPACTION;
       bytes = getBytesForMessage(msg);
-      encodeBinary(bytes, p, bytes.length, encodingMode, sb);
+      encodeBinary(bytes, p, bytes.length, encodingMode, codewords);
 
     } else if (compaction == Compaction.NUMERIC) {
       encodingMode = NUMERIC_COMPACTION;
-      sb.append((char) LATCH_TO_NUMERIC);
-      encodeNumeric(msg, p, len, sb);
+      codewords.append(LATCH_TO_NUMERIC);
+      encodeNumeric(msg, p, len, codewords);
 
     } else {
       while (p < len) {
         int n = determineConsecutiveDigitCount(msg, p);
         if (n >= 13) {
-          sb.append((char) LATCH_TO_NUMERIC);
+          codewords.append(LATCH_TO_NUMERIC);
           encodingMode = NUMERIC_COMPACTION;
           textSubMode = SUBMODE_ALPHA;
-          encodeNumeric(msg, p, n, sb);
+          encodeNumeric(msg, p, n, codewords);
           p += n;
         } else {
           int t = determineConsecutiveTextCount(msg, p);
           if (t >= 5 || n == len) {
             if (encodingMode != TEXT_COMPACTION) {
-              sb.append((char) LATCH_TO_TEXT);
+              codewords.append(LATCH_TO_TEXT);
               encodingMode = TEXT_COMPACTION;
               textSubMode = SUBMODE_ALPHA;
             }
-            textSubMode = encodeText(msg, p, t, sb, textSubMode);
+            textSubMode = encodeText(msg, p, t, codewords, textSubMode);
             p += t;
           } else {
             if (bytes == null) {
@@ -142,10 +140,10 @@ final class PDF417HighLevelEncoder {
             }
             if (b == 1 && encodingMode == TEXT_COMPACTION) {
 
-              encodeBinary(bytes, p, 1, TEXT_COMPACTION, sb);
+              encodeBinary(bytes, p, 1, TEXT_COMPACTION, codewords);
             } else {
 
-              encodeBinary(bytes, p, b, encodingMode, sb);
+              encodeBinary(bytes, p, b, encodingMode, codewords);
               encodingMode = BYTE_COMPACTION;
               textSubMode = SUBMODE_ALPHA;
             }
@@ -154,17 +152,15 @@ final class PDF417HighLevelEncoder {
         }
       }
     }
-
-    return sb.toString();
   }
 
 
   private static int encodeText(CharSequence msg,
                                 int startpos,
                                 int count,
-                                StringBuilder sb,
+                                CodewordBuffer codewords,
                                 int initialSubmode) {
-    StringBuilder tmp = new StringBuilder(count);
+    int start = codewords.getSize();
     int submode = initialSubmode;
     int idx = 0;
     while (true) {
@@ -173,22 +169,22 @@ final class PDF417HighLevelEncoder {
         case SUBMODE_ALPHA:
           if (isAlphaUpper(ch)) {
             if (ch == ' ') {
-              tmp.append((char) 26);
+              codewords.append(26);
             } else {
-              tmp.append((char) (ch - 65));
+              codewords.append(ch - 65);
             }
           } else {
             if (isAlphaLower(ch)) {
               submode = SUBMODE_LOWER;
-              tmp.append((char) 27);
+              codewords.append(27);
               continue;
             } else if (isMixed(ch)) {
               submode = SUBMODE_MIXED;
-              tmp.append((char) 28);
+              codewords.append(28);
               continue;
             } else {
-              tmp.append((char) 29);
-              tmp.append((char) PUNCTUATION[ch]);
+              codewords.append(29);
+              codewords.append(PUNCTUATION[ch]);
               break;
             }
           }
@@ -196,59 +192,59 @@ final class PDF417HighLevelEncoder {
         case SUBMODE_LOWER:
           if (isAlphaLower(ch)) {
             if (ch == ' ') {
-              tmp.append((char) 26);
+              codewords.append(26);
             } else {
-              tmp.append((char) (ch - 97));
+              codewords.append(ch - 97);
             }
           } else {
             if (isAlphaUpper(ch)) {
-              tmp.append((char) 27);
-              tmp.append((char) (ch - 65));
+              codewords.append(27);
+              codewords.append(ch - 65);
 
               break;
             } else if (isMixed(ch)) {
               submode = SUBMODE_MIXED;
-              tmp.append((char) 28);
+              codewords.append(28);
               continue;
             } else {
-              tmp.append((char) 29);
-              tmp.append((char) PUNCTUATION[ch]);
+              codewords.append(29);
+              codewords.append(PUNCTUATION[ch]);
               break;
             }
           }
           break;
         case SUBMODE_MIXED:
           if (isMixed(ch)) {
-            tmp.append((char) MIXED[ch]);
+            codewords.append(MIXED[ch]);
           } else {
             if (isAlphaUpper(ch)) {
               submode = SUBMODE_ALPHA;
-              tmp.append((char) 28);
+              codewords.append(28);
               continue;
             } else if (isAlphaLower(ch)) {
               submode = SUBMODE_LOWER;
-              tmp.append((char) 27);
+              codewords.append(27);
               continue;
             } else {
               if (startpos + idx + 1 < count) {
                 char next = msg.charAt(startpos + idx + 1);
                 if (isPunctuation(next)) {
                   submode = SUBMODE_PUNCTUATION;
-                  tmp.append((char) 25);
+                  codewords.append(25);
                   continue;
                 }
               }
-              tmp.append((char) 29);
-              tmp.append((char) PUNCTUATION[ch]);
+              codewords.append(29);
+              codewords.append(PUNCTUATION[ch]);
             }
           }
           break;
         default:
           if (isPunctuation(ch)) {
-            tmp.append((char) PUNCTUATION[ch]);
+            codewords.append(PUNCTUATION[ch]);
           } else {
             submode = SUBMODE_ALPHA;
-            tmp.append((char) 29);
+            codewords.append(29);
             continue;
           }
       }
@@ -257,20 +253,16 @@ final class PDF417HighLevelEncoder {
         break;
       }
     }
-    char h = 0;
-    int len = tmp.length();
-    for (int i = 0; i < len; i++) {
-      boolean odd = (i % 2) != 0;
-      if (odd) {
-        h = (char) ((h * 30) + tmp.charAt(i));
-        sb.append(h);
-      } else {
-        h = tmp.charAt(i);
-      }
+    int[] values = codewords.getCodewords();
+    int len = codewords.getSize() - start;
+    int out = start;
+    for (int i = 1; i < len; i += 2) {
+      values[out++] = values[start + i - 1] * 30 + values[start + i];
     }
     if ((len % 2) != 0) {
-      sb.append((char) ((h * 30) + 29));
+      values[out++] = values[start + len - 1] * 30 + 29;
     }
+    codewords.setSize(out);
     return submode;
   }
 
@@ -279,61 +271,61 @@ final class PDF417HighLevelEncoder {
                                    int startpos,
                                    int count,
                                    int startmode,
-                                   StringBuilder sb) {
+                                   CodewordBuffer codewords) {
     if (count == 1 && startmode == TEXT_COMPACTION) {
-      sb.append((char) SHIFT_TO_BYTE);
+      codewords.append(SHIFT_TO_BYTE);
     }
 
     int idx = startpos;
 
     if (count >= 6) {
-      sb.append((char) LATCH_TO_BYTE);
-      char[] chars = new char[5];
+      codewords.append(LATCH_TO_BYTE);
+      codewords.ensureCapacity(codewords.getSize() + (count / 6) * 5);
       while ((startpos + count - idx) >= 6) {
         long t = 0;
         for (int i = 0; i < 6; i++) {
           t <<= 8;
           t += bytes[idx + i] & 0xff;
         }
-        for (int i = 0; i < 5; i++) {
-          chars[i] = (char) (t % 900);
+        int end = codewords.getSize() + 5;
+        codewords.setSize(end);
+        for (int i = 1; i <= 5; i++) {
+          codewords.set(end - i, (int) (t % 900));
           t /= 900;
         }
-        for (int i = chars.length - 1; i >= 0; i--) {
-          sb.append(chars[i]);
-        }
         idx += 6;
       }
     }
 
     if (idx < startpos + count) {
-      sb.append((char) LATCH_TO_BYTE_PADDED);
+      codewords.append(LATCH_TO_BYTE_PADDED);
     }
     for (int i = idx; i < startpos + count; i++) {
-      int ch = bytes[i] & 0xff;
-      sb.append((char) ch);
+      codewords.append(bytes[i] & 0xff);
     }
   }
 
-  private static void encodeNumeric(String msg, int startpos, int count, StringBuilder sb) {
+  private static void encodeNumeric(String msg, int startpos, int count, CodewordBuffer codewords) {
     int idx = 0;
-    StringBuilder tmp = new StringBuilder(count / 3 + 1);
     BigInteger num900 = BigInteger.valueOf(900);
     BigInteger num0 = BigInteger.valueOf(0);
     while (idx < count - 1) {
-      tmp.setLength(0);
+      int start = codewords.getSize();
       int len = Math.min(44, count - idx);
       String part = '1' + msg.substring(startpos + idx, startpos + idx + len);
       BigInteger bigint = new BigInteger(part);
       do {
-        BigInteger c = bigint.mod(num900);
-        tmp.append((char) c.intValue());
-        bigint = bigint.divide(num900);
+        BigInteger[] quotientAndRemainder = bigint.divideAndRemainder(num900);
+        codewords.append(quotientAndRemainder[1].intValue());
+        bigint = quotientAndRemainder[0];
       } while (!bigint.equals(num0));
 
 
-      for (int i = tmp.length() - 1; i >= 0; i--) {
-        sb.append(tmp.charAt(i));
+      int[] values = codewords.getCodewords();
+      for (int i = start, j = codewords.getSize() - 1; i < j; i++, j--) {
+        int swap = values[i];
+        values[i] = values[j];
+        values[j] = swap;
       }
       idx += len;
     }
@@ -4,15 +4,30 @@ package com.qrCodeGenerator.util.pdf417.encoder;
 
 import com.qrCodeGenerator.util.BarcodeFormat;
 import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.ModuleGrid;
+import com.qrCodeGenerator.util.ResultMetadataType;
 import com.qrCodeGenerator.util.Writer;
 import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitArray;
 import com.qrCodeGenerator.util.common.BitMatrix;
 
+import java.util.EnumMap;
 import java.util.Map;
 
 
 public final class PDF417Writer implements Writer {
 
+  private static final int QUIET_ZONE_SIZE = 2;
+  private static final int ASPECT_RATIO = 4;
+  private static final int WHITE_SPACE = 30;
+
+  private static final ThreadLocal<PDF417> ENCODER = new ThreadLocal<PDF417>() {
+    @Override
+    protected PDF417 initialValue() {
+      return new PDF417();
+    }
+  };
+
   public BitMatrix encode(String contents,
                           BarcodeFormat format,
                           int width,
@@ -49,13 +64,25 @@ public final class PDF417Writer implements Writer {
   }
 
 
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) throws WriterException {
+    PDF417 encoder = initializeEncoder(format, false);
+    int errorCorrectionLevel = 2;
+    encoder.generateBarcodeLogic(contents, errorCorrectionLevel);
+    Map<ResultMetadataType,Object> metadata = new EnumMap<ResultMetadataType,Object>(ResultMetadataType.class);
+    metadata.put(ResultMetadataType.ERROR_CORRECTION_LEVEL, errorCorrectionLevel);
+    return new ModuleGrid(encoder.getBarcodeMatrix().toBitMatrix(), format, QUIET_ZONE_SIZE, 0, ASPECT_RATIO, metadata);
+  }
+
+
   private static PDF417 initializeEncoder(BarcodeFormat format, boolean compact) {
     if (format != BarcodeFormat.PDF_417) {
       throw new IllegalArgumentException("Can only encode PDF_417, but got " + format);
     }
 
-    PDF417 encoder = new PDF417();
-    encoder.setCompact(compact);
+    PDF417 encoder = ENCODER.get();
+    encoder.reset(compact);
     return encoder;
   }
 
@@ -68,16 +95,19 @@ public final class PDF417Writer implements Writer {
     encoder.generateBarcodeLogic(contents, errorCorrectionLevel);
 
     int lineThickness = 2;
-    int aspectRatio = 4;
-    byte[][] originalScale = encoder.getBarcodeMatrix().getScaledMatrix(lineThickness, aspectRatio * lineThickness);
-    boolean rotated = false;
-    if ((height > width) ^ (originalScale[0].length < originalScale.length)) {
-      originalScale = rotateArray(originalScale);
-      rotated = true;
+    int aspectRatio = ASPECT_RATIO;
+    BarcodeMatrix barcodeMatrix = encoder.getBarcodeMatrix();
+    int originalWidth = barcodeMatrix.getWidth() * lineThickness;
+    int originalHeight = barcodeMatrix.getHeight() * aspectRatio * lineThickness;
+    boolean rotated = (height > width) ^ (originalWidth < originalHeight);
+    if (rotated) {
+      int temp = originalWidth;
+      originalWidth = originalHeight;
+      originalHeight = temp;
     }
 
-    int scaleX = width / originalScale[0].length;
-    int scaleY = height / originalScale.length;
+    int scaleX = width / originalWidth;
+    int scaleY = height / originalHeight;
 
     int scale;
     if (scaleX < scaleY) {
@@ -85,49 +115,65 @@ public final class PDF417Writer implements Writer {
     } else {
       scale = scaleY;
     }
+    if (scale < 1) {
+      scale = 1;
+    }
 
-    if (scale > 1) {
-      byte[][] scaledMatrix =
-          encoder.getBarcodeMatrix().getScaledMatrix(scale * lineThickness, scale * aspectRatio * lineThickness);
-      if (rotated) {
-        scaledMatrix = rotateArray(scaledMatrix);
-      }
-      return bitMatrixFrombitArray(scaledMatrix);
+    int moduleWidth = scale * lineThickness;
+    int moduleHeight = scale * aspectRatio * lineThickness;
+    if (rotated) {
+      return renderRows(barcodeMatrix, moduleWidth, moduleHeight);
     }
-    return bitMatrixFrombitArray(originalScale);
+    return renderColumns(barcodeMatrix, moduleWidth, moduleHeight);
   }
 
 
-  private static BitMatrix bitMatrixFrombitArray(byte[][] input) {
-
-    int whiteSpace = 30;
-
-
-    BitMatrix output = new BitMatrix(input.length + 2 * whiteSpace, input[0].length + 2 * whiteSpace);
-    output.clear();
-    for (int ii = 0; ii < input.length; ii++) {
-      for (int jj = 0; jj < input[0].length; jj++) {
-
-        if (input[ii][jj] == 1) {
-          output.set(ii + whiteSpace, jj + whiteSpace);
-        }
+  private static BitMatrix renderRows(BarcodeMatrix barcodeMatrix, int moduleWidth, int moduleHeight) {
+    int rows = barcodeMatrix.getHeight();
+    int columns = barcodeMatrix.getWidth();
+    BitMatrix output = new BitMatrix(columns * moduleWidth + 2 * WHITE_SPACE, rows * moduleHeight + 2 * WHITE_SPACE);
+    BitArray scaled = new BitArray(output.getWidth());
+    for (int y = 0; y < rows; y++) {
+      BitArray row = barcodeMatrix.getRow(y);
+      scaled.clear();
+      int x = row.getNextSet(0);
+      while (x < columns) {
+        int end = Math.min(columns, row.getNextUnset(x));
+        scaled.setRange(WHITE_SPACE + x * moduleWidth, WHITE_SPACE + end * moduleWidth);
+        x = end < columns ? row.getNextSet(end) : columns;
+      }
+      int top = WHITE_SPACE + y * moduleHeight;
+      for (int i = 0; i < moduleHeight; i++) {
+        output.setRow(top + i, scaled);
       }
     }
     return output;
   }
 
 
-  private static byte[][] rotateArray(byte[][] bitarray) {
-    byte[][] temp = new byte[bitarray[0].length][bitarray.length];
-    for (int ii = 0; ii < bitarray.length; ii++) {
-
-
-      int inverseii = bitarray.length - ii - 1;
-      for (int jj = 0; jj < bitarray[0].length; jj++) {
-        temp[jj][inverseii] = bitarray[ii][jj];
+  private static BitMatrix renderColumns(BarcodeMatrix barcodeMatrix, int moduleWidth, int moduleHeight) {
+    int rows = barcodeMatrix.getHeight();
+    int columns = barcodeMatrix.getWidth();
+    BitMatrix output = new BitMatrix(rows * moduleHeight + 2 * WHITE_SPACE, columns * moduleWidth + 2 * WHITE_SPACE);
+    BitArray scaled = new BitArray(output.getWidth());
+    BitArray[] barcodeRows = new BitArray[rows];
+    for (int y = 0; y < rows; y++) {
+      barcodeRows[y] = barcodeMatrix.getRow(y);
+    }
+    for (int x = 0; x < columns; x++) {
+      scaled.clear();
+      for (int y = 0; y < rows; y++) {
+        if (barcodeRows[y].get(x)) {
+          int left = WHITE_SPACE + (rows - 1 - y) * moduleHeight;
+          scaled.setRange(left, left + moduleHeight);
+        }
+      }
+      int top = WHITE_SPACE + x * moduleWidth;
+      for (int i = 0; i < moduleWidth; i++) {
+        output.setRow(top + i, scaled);
       }
     }
-    return temp;
+    return output;
   }
 
 }
@@ -4,14 +4,20 @@ package com.qrCodeGenerator.util.qrcode;
 
 import com.qrCodeGenerator.util.BarcodeFormat;
 import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.EncodeInstrumentation;
+import com.qrCodeGenerator.util.EncodeStage;
+import com.qrCodeGenerator.util.ModuleGrid;
+import com.qrCodeGenerator.util.ResultMetadataType;
 import com.qrCodeGenerator.util.Writer;
 import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitArray;
 import com.qrCodeGenerator.util.common.BitMatrix;
-import com.qrCodeGenerator.util.qrcode.encoder.ByteMatrix;
 import com.qrCodeGenerator.util.qrcode.decoder.ErrorCorrectionLevel;
 import com.qrCodeGenerator.util.qrcode.encoder.Encoder;
+import com.qrCodeGenerator.util.qrcode.encoder.ModuleMatrix;
 import com.qrCodeGenerator.util.qrcode.encoder.QRCode;
 
+import java.util.EnumMap;
 import java.util.Map;
 
 
@@ -31,6 +37,23 @@ public final class QRCodeWriter implements Writer {
                           int height,
                           Map<EncodeHintType,?> hints) throws WriterException {
 
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Requested dimensions are too small: " + width + 'x' +
+          height);
+    }
+
+    ModuleGrid grid = encodeModules(contents, format, hints);
+    EncodeInstrumentation.Probe probe = EncodeInstrumentation.start();
+    BitMatrix output = renderResult(grid, width, height);
+    EncodeInstrumentation.mark(probe, EncodeStage.RENDERING);
+    return output;
+  }
+
+
+  public ModuleGrid encodeModules(String contents,
+                                  BarcodeFormat format,
+                                  Map<EncodeHintType,?> hints) throws WriterException {
+
     if (contents.length() == 0) {
       throw new IllegalArgumentException("Found empty contents");
     }
@@ -39,11 +62,6 @@ public final class QRCodeWriter implements Writer {
       throw new IllegalArgumentException("Can only encode QR_CODE, but got " + format);
     }
 
-    if (width < 0 || height < 0) {
-      throw new IllegalArgumentException("Requested dimensions are too small: " + width + 'x' +
-          height);
-    }
-
     ErrorCorrectionLevel errorCorrectionLevel = ErrorCorrectionLevel.L;
     if (hints != null) {
       ErrorCorrectionLevel requestedECLevel = (ErrorCorrectionLevel) hints.get(EncodeHintType.ERROR_CORRECTION);
@@ -54,20 +72,25 @@ public final class QRCodeWriter implements Writer {
 
     QRCode code = new QRCode();
     Encoder.encode(contents, errorCorrectionLevel, hints, code);
-    return renderResult(code, width, height);
+    ModuleMatrix input = code.getModuleMatrix();
+    if (input == null) {
+      throw new IllegalStateException();
+    }
+    Map<ResultMetadataType,Object> metadata = new EnumMap<ResultMetadataType,Object>(ResultMetadataType.class);
+    metadata.put(ResultMetadataType.SYMBOL_VERSION, code.getVersion());
+    metadata.put(ResultMetadataType.ERROR_CORRECTION_LEVEL, code.getECLevel());
+    metadata.put(ResultMetadataType.MASK_PATTERN, code.getMaskPattern());
+    return new ModuleGrid(input.toBitMatrix(), format, QUIET_ZONE_SIZE, QUIET_ZONE_SIZE, 1, metadata);
   }
 
 
 
-  private static BitMatrix renderResult(QRCode code, int width, int height) {
-    ByteMatrix input = code.getMatrix();
-    if (input == null) {
-      throw new IllegalStateException();
-    }
+  private static BitMatrix renderResult(ModuleGrid grid, int width, int height) {
+    BitMatrix input = grid.getModules();
     int inputWidth = input.getWidth();
     int inputHeight = input.getHeight();
-    int qrWidth = inputWidth + (QUIET_ZONE_SIZE << 1);
-    int qrHeight = inputHeight + (QUIET_ZONE_SIZE << 1);
+    int qrWidth = grid.getFullWidth();
+    int qrHeight = grid.getFullHeight();
     int outputWidth = Math.max(width, qrWidth);
     int outputHeight = Math.max(height, qrHeight);
 
@@ -80,14 +103,20 @@ public final class QRCodeWriter implements Writer {
     int topPadding = (outputHeight - (inputHeight * multiple)) / 2;
 
     BitMatrix output = new BitMatrix(outputWidth, outputHeight);
+    BitArray inputRow = new BitArray(inputWidth);
+    BitArray outputRow = new BitArray(outputWidth);
 
     for (int inputY = 0, outputY = topPadding; inputY < inputHeight; inputY++, outputY += multiple) {
-
-      for (int inputX = 0, outputX = leftPadding; inputX < inputWidth; inputX++, outputX += multiple) {
-        if (input.get(inputX, inputY) == 1) {
-          output.setRegion(outputX, outputY, multiple, multiple);
-        }
+      inputRow = input.getRow(inputY, inputRow);
+      outputRow.clear();
+      int inputX = inputRow.getNextSet(0);
+      while (inputX < inputWidth) {
+        int end = Math.min(inputWidth, inputRow.getNextUnset(inputX));
+        outputRow.setRange(leftPadding + inputX * multiple, leftPadding + end * multiple);
+        inputX = end < inputWidth ? inputRow.getNextSet(end) : inputWidth;
       }
+      output.setRow(outputY, outputRow);
+      output.fillRows(outputY, outputY + 1, multiple - 1);
     }
 
     return output;
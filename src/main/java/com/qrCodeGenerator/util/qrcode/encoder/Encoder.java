@@ -3,11 +3,13 @@
 package com.qrCodeGenerator.util.qrcode.encoder;
 
 import com.qrCodeGenerator.util.EncodeHintType;
+import com.qrCodeGenerator.util.EncodeInstrumentation;
+import com.qrCodeGenerator.util.EncodeStage;
 import com.qrCodeGenerator.util.WriterException;
 import com.qrCodeGenerator.util.common.BitArray;
 import com.qrCodeGenerator.util.common.CharacterSetECI;
 import com.qrCodeGenerator.util.common.reedsolomon.GenericGF;
-import com.qrCodeGenerator.util.common.reedsolomon.ReedSolomonEncoder;
+import com.qrCodeGenerator.util.common.reedsolomon.ReedSolomonByteEncoder;
 import com.qrCodeGenerator.util.qrcode.decoder.ErrorCorrectionLevel;
 import com.qrCodeGenerator.util.qrcode.decoder.Mode;
 import com.qrCodeGenerator.util.qrcode.decoder.Version;
@@ -15,6 +17,7 @@ import com.qrCodeGenerator.util.qrcode.decoder.Version;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 
@@ -32,21 +35,29 @@ public final class Encoder {
 
   static final String DEFAULT_BYTE_MODE_ENCODING = "ISO-8859-1";
 
-  private Encoder() {
-  }
+  private static final int[][] VERSION_RANGES = {{1, 9}, {10, 26}, {27, 40}};
 
+  private static final ReedSolomonByteEncoder EC_ENCODER =
+      new ReedSolomonByteEncoder(GenericGF.QR_CODE_FIELD_256, getECCodewordsPerBlockSizes());
 
+  private Encoder() {
+  }
 
-  private static int calculateMaskPenalty(ByteMatrix matrix) {
-    int penalty = 0;
-    penalty += MaskUtil.applyMaskPenaltyRule1(matrix);
-    penalty += MaskUtil.applyMaskPenaltyRule2(matrix);
-    penalty += MaskUtil.applyMaskPenaltyRule3(matrix);
-    penalty += MaskUtil.applyMaskPenaltyRule4(matrix);
-    return penalty;
+  private static int[] getECCodewordsPerBlockSizes() {
+    ErrorCorrectionLevel[] ecLevels = ErrorCorrectionLevel.values();
+    int[] sizes = new int[40 * ecLevels.length];
+    for (int versionNum = 1; versionNum <= 40; versionNum++) {
+      Version version = Version.getVersionForNumber(versionNum);
+      for (int i = 0; i < ecLevels.length; i++) {
+        sizes[(versionNum - 1) * ecLevels.length + i] =
+            version.getECBlocksForLevel(ecLevels[i]).getECCodewordsPerBlock();
+      }
+    }
+    return sizes;
   }
 
 
+
   public static void encode(String content, ErrorCorrectionLevel ecLevel, QRCode qrCode)
       throws WriterException {
     encode(content, ecLevel, null, qrCode);
@@ -63,7 +74,54 @@ public final class Encoder {
     }
 
 
+    EncodeInstrumentation.Probe probe = EncodeInstrumentation.start();
+    BitArray headerAndDataBits;
+    if (isCompact(hints)) {
+      headerAndDataBits = encodeSegments(content, ecLevel, encoding, qrCode, probe);
+    } else {
+      headerAndDataBits = encodeSingleMode(content, ecLevel, encoding, qrCode, probe);
+    }
+    EncodeInstrumentation.mark(probe, EncodeStage.DATA_ENCODING);
+
+
+    terminateBits(qrCode.getNumDataBytes(), headerAndDataBits);
+
+
+    BitArray finalBits = new BitArray();
+    interleaveWithECBytes(headerAndDataBits, qrCode.getNumTotalBytes(), qrCode.getNumDataBytes(),
+        qrCode.getNumRSBlocks(), finalBits);
+    EncodeInstrumentation.mark(probe, EncodeStage.ERROR_CORRECTION);
+
+
+    ModuleMatrix matrix = new ModuleMatrix(qrCode.getMatrixWidth(), qrCode.getMatrixWidth());
+    qrCode.setMaskPattern(chooseMaskPattern(finalBits, ecLevel, qrCode.getVersion(), matrix));
+    EncodeInstrumentation.mark(probe, EncodeStage.MASK_SELECTION);
+
+
+    MatrixUtil.buildMatrix(finalBits, ecLevel, qrCode.getVersion(), qrCode.getMaskPattern(), matrix);
+    qrCode.setMatrix(matrix);
+    EncodeInstrumentation.mark(probe, EncodeStage.MATRIX_CONSTRUCTION);
+
+    if (!qrCode.isValid()) {
+      throw new WriterException("Invalid QR code: " + qrCode.toString());
+    }
+  }
+
+  private static boolean isCompact(Map<EncodeHintType,?> hints) {
+    if (hints == null) {
+      return false;
+    }
+    Object compact = hints.get(EncodeHintType.QR_COMPACT);
+    return compact != null && Boolean.parseBoolean(compact.toString());
+  }
+
+  private static BitArray encodeSingleMode(String content,
+                                           ErrorCorrectionLevel ecLevel,
+                                           String encoding,
+                                           QRCode qrCode,
+                                           EncodeInstrumentation.Probe probe) throws WriterException {
     Mode mode = chooseMode(content, encoding);
+    EncodeInstrumentation.mark(probe, EncodeStage.MODE_SELECTION);
 
 
     BitArray dataBits = new BitArray();
@@ -88,26 +146,64 @@ public final class Encoder {
     int numLetters = mode == Mode.BYTE ? dataBits.getSizeInBytes() : content.length();
     appendLengthInfo(numLetters, qrCode.getVersion(), mode, headerAndDataBits);
     headerAndDataBits.appendBitArray(dataBits);
+    return headerAndDataBits;
+  }
 
 
-    terminateBits(qrCode.getNumDataBytes(), headerAndDataBits);
-
-
-    BitArray finalBits = new BitArray();
-    interleaveWithECBytes(headerAndDataBits, qrCode.getNumTotalBytes(), qrCode.getNumDataBytes(),
-        qrCode.getNumRSBlocks(), finalBits);
-
-
-    ByteMatrix matrix = new ByteMatrix(qrCode.getMatrixWidth(), qrCode.getMatrixWidth());
-    qrCode.setMaskPattern(chooseMaskPattern(finalBits, ecLevel, qrCode.getVersion(), matrix));
+  private static BitArray encodeSegments(String content,
+                                         ErrorCorrectionLevel ecLevel,
+                                         String encoding,
+                                         QRCode qrCode,
+                                         EncodeInstrumentation.Probe probe) throws WriterException {
+    CharacterSetECI eci = DEFAULT_BYTE_MODE_ENCODING.equals(encoding) ?
+        null : CharacterSetECI.getCharacterSetECIByName(encoding);
+    qrCode.setECLevel(ecLevel);
 
+    BitArray headerAndDataBits = null;
+    Mode firstMode = null;
+    Version chosenVersion = null;
+    for (int i = 0; i < VERSION_RANGES.length && chosenVersion == null; i++) {
+      int[] versionRange = VERSION_RANGES[i];
+      int maxVersion = versionRange[1];
+      List<MinimalSegmenter.Segment> segments = MinimalSegmenter.segment(
+          content, encoding, Version.getVersionForNumber(maxVersion), eci == null ? 0 : 12);
 
-    MatrixUtil.buildMatrix(finalBits, ecLevel, qrCode.getVersion(), qrCode.getMaskPattern(), matrix);
-    qrCode.setMatrix(matrix);
+      headerAndDataBits = new BitArray();
+      if (eci != null) {
+        for (MinimalSegmenter.Segment segment : segments) {
+          if (segment.getMode() == Mode.BYTE) {
+            appendECI(eci, headerAndDataBits);
+            break;
+          }
+        }
+      }
+      for (MinimalSegmenter.Segment segment : segments) {
+        Mode mode = segment.getMode();
+        String text = content.substring(segment.getStart(), segment.getEnd());
+        BitArray dataBits = new BitArray();
+        appendBytes(text, mode, dataBits, encoding);
+        appendModeInfo(mode, headerAndDataBits);
+        int numLetters = mode == Mode.BYTE ? dataBits.getSizeInBytes() : text.length();
+        appendLengthInfo(numLetters, maxVersion, mode, headerAndDataBits);
+        headerAndDataBits.appendBitArray(dataBits);
+      }
 
-    if (!qrCode.isValid()) {
-      throw new WriterException("Invalid QR code: " + qrCode.toString());
+      int numInputBytes = headerAndDataBits.getSizeInBytes();
+      for (int versionNum = versionRange[0]; versionNum <= maxVersion && chosenVersion == null; versionNum++) {
+        Version version = Version.getVersionForNumber(versionNum);
+        if (getNumDataBytes(version, ecLevel) >= numInputBytes) {
+          firstMode = segments.get(0).getMode();
+          chosenVersion = version;
+        }
+      }
+    }
+    EncodeInstrumentation.mark(probe, EncodeStage.MODE_SELECTION);
+    if (chosenVersion == null) {
+      throw new WriterException("Cannot find proper rs block info (input data too big?)");
     }
+    qrCode.setMode(firstMode);
+    setVersion(chosenVersion, ecLevel, qrCode);
+    return headerAndDataBits;
   }
 
 
@@ -172,20 +268,13 @@ public final class Encoder {
   private static int chooseMaskPattern(BitArray bits,
                                        ErrorCorrectionLevel ecLevel,
                                        int version,
-                                       ByteMatrix matrix) throws WriterException {
+                                       ModuleMatrix matrix) throws WriterException {
+    return MaskEvaluator.chooseMaskPattern(bits, ecLevel, version, matrix);
+  }
 
-    int minPenalty = Integer.MAX_VALUE;
-    int bestMaskPattern = -1;
 
-    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
-      MatrixUtil.buildMatrix(bits, ecLevel, version, maskPattern, matrix);
-      int penalty = calculateMaskPenalty(matrix);
-      if (penalty < minPenalty) {
-        minPenalty = penalty;
-        bestMaskPattern = maskPattern;
-      }
-    }
-    return bestMaskPattern;
+  public static long getTemplateCacheSizeInBytes() {
+    return MatrixTemplate.getCacheSizeInBytes();
   }
 
 
@@ -199,33 +288,29 @@ public final class Encoder {
 
     for (int versionNum = 1; versionNum <= 40; versionNum++) {
       Version version = Version.getVersionForNumber(versionNum);
-
-      int numBytes = version.getTotalCodewords();
-
-      Version.ECBlocks ecBlocks = version.getECBlocksForLevel(ecLevel);
-      int numEcBytes = ecBlocks.getTotalECCodewords();
-
-      int numRSBlocks = ecBlocks.getNumBlocks();
-
-      int numDataBytes = numBytes - numEcBytes;
-
-
-
-      if (numDataBytes >= getTotalInputBytes(numInputBits, version, mode)) {
-
-        qrCode.setVersion(versionNum);
-        qrCode.setNumTotalBytes(numBytes);
-        qrCode.setNumDataBytes(numDataBytes);
-        qrCode.setNumRSBlocks(numRSBlocks);
-
-        qrCode.setNumECBytes(numEcBytes);
-
-        qrCode.setMatrixWidth(version.getDimensionForVersion());
+      if (getNumDataBytes(version, ecLevel) >= getTotalInputBytes(numInputBits, version, mode)) {
+        setVersion(version, ecLevel, qrCode);
         return;
       }
     }
     throw new WriterException("Cannot find proper rs block info (input data too big?)");
   }
+
+  private static int getNumDataBytes(Version version, ErrorCorrectionLevel ecLevel) {
+    return version.getTotalCodewords() - version.getECBlocksForLevel(ecLevel).getTotalECCodewords();
+  }
+
+  private static void setVersion(Version version, ErrorCorrectionLevel ecLevel, QRCode qrCode) {
+    Version.ECBlocks ecBlocks = version.getECBlocksForLevel(ecLevel);
+    int numBytes = version.getTotalCodewords();
+    int numEcBytes = ecBlocks.getTotalECCodewords();
+    qrCode.setVersion(version.getVersionNumber());
+    qrCode.setNumTotalBytes(numBytes);
+    qrCode.setNumDataBytes(numBytes - numEcBytes);
+    qrCode.setNumRSBlocks(ecBlocks.getNumBlocks());
+    qrCode.setNumECBytes(numEcBytes);
+    qrCode.setMatrixWidth(version.getDimensionForVersion());
+  }
   
   private static int getTotalInputBytes(int numInputBits, Version version, Mode mode) {
     int modeInfoBits = 4;
@@ -243,16 +328,12 @@ public final class Encoder {
       throw new WriterException("data bits cannot fit in the QR Code" + bits.getSize() + " > " +
           capacity);
     }
-    for (int i = 0; i < 4 && bits.getSize() < capacity; ++i) {
-      bits.appendBit(false);
-    }
+    bits.appendBits(0, Math.min(4, capacity - bits.getSize()));
 
 
-    int numBitsInLastByte = bits.getSize() & 0x07;    
+    int numBitsInLastByte = bits.getSize() & 0x07;
     if (numBitsInLastByte > 0) {
-      for (int i = numBitsInLastByte; i < 8; i++) {
-        bits.appendBit(false);
-      }
+      bits.appendBits(0, 8 - numBitsInLastByte);
     }
 
     int numPaddingBytes = numDataBytes - bits.getSizeInBytes();
@@ -384,17 +465,8 @@ public final class Encoder {
   }
 
   static byte[] generateECBytes(byte[] dataBytes, int numEcBytesInBlock) {
-    int numDataBytes = dataBytes.length;
-    int[] toEncode = new int[numDataBytes + numEcBytesInBlock];
-    for (int i = 0; i < numDataBytes; i++) {
-      toEncode[i] = dataBytes[i] & 0xFF;
-    }
-    new ReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256).encode(toEncode, numEcBytesInBlock);
-
     byte[] ecBytes = new byte[numEcBytesInBlock];
-    for (int i = 0; i < numEcBytesInBlock; i++) {
-      ecBytes[i] = (byte) toEncode[numDataBytes + i];
-    }
+    EC_ENCODER.encode(dataBytes, 0, dataBytes.length, ecBytes);
     return ecBytes;
   }
 
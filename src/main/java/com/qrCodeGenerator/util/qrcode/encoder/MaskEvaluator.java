@@ -0,0 +1,96 @@
+package com.qrCodeGenerator.util.qrcode.encoder;
+
+import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitArray;
+import com.qrCodeGenerator.util.qrcode.decoder.ErrorCorrectionLevel;
+
+
+final class MaskEvaluator {
+
+  private final ModuleMatrix matrix;
+  private final ErrorCorrectionLevel ecLevel;
+  private final int dimension;
+  private final int rowSize;
+  private final long[] rows;
+  private final long[] columns;
+  private final long[] dataRows;
+  private final long[] dataColumns;
+  private final long[] maskedRows;
+  private final long[] maskedColumns;
+
+  MaskEvaluator(BitArray dataBits,
+                ErrorCorrectionLevel ecLevel,
+                int version,
+                ModuleMatrix matrix) throws WriterException {
+    this.matrix = matrix;
+    this.ecLevel = ecLevel;
+    dimension = matrix.getWidth();
+    rowSize = matrix.getRowSize();
+
+    MatrixTemplate template = MatrixTemplate.getInstance(version);
+    template.copyTo(matrix);
+    MatrixUtil.embedTypeInfo(ecLevel, 0, matrix);
+
+    columns = template.copyColumns();
+    template.embedDataBits(dataBits, matrix.getValues(), columns);
+    rows = matrix.getValues().clone();
+    dataRows = template.getDataRows();
+    dataColumns = template.getDataColumns();
+    maskedRows = new long[rows.length];
+    maskedColumns = new long[columns.length];
+  }
+
+  static int chooseMaskPattern(BitArray dataBits,
+                               ErrorCorrectionLevel ecLevel,
+                               int version,
+                               ModuleMatrix matrix) throws WriterException {
+    MaskEvaluator evaluator = new MaskEvaluator(dataBits, ecLevel, version, matrix);
+    int minPenalty = Integer.MAX_VALUE;
+    int bestMaskPattern = -1;
+    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
+      int penalty = evaluator.calculateMaskPenalty(maskPattern);
+      if (penalty < minPenalty) {
+        minPenalty = penalty;
+        bestMaskPattern = maskPattern;
+      }
+    }
+    return bestMaskPattern;
+  }
+
+  int calculateMaskPenalty(int maskPattern) throws WriterException {
+    embedTypeInfo(maskPattern);
+    MaskUtil.applyDataMask(maskPattern, rows, dataRows, columns, dataColumns,
+        dimension, rowSize, maskedRows, maskedColumns);
+    int penalty = 0;
+    penalty += MaskUtil.applyRunPenalty(maskedRows, dimension, dimension, rowSize) +
+        MaskUtil.applyRunPenalty(maskedColumns, dimension, dimension, rowSize);
+    penalty += MaskUtil.applyBlockPenalty(maskedRows, dimension, dimension, rowSize);
+    penalty += MaskUtil.applyFinderPenalty(maskedRows, dimension, rowSize) +
+        MaskUtil.applyFinderPenalty(maskedColumns, dimension, rowSize);
+    penalty += MaskUtil.applyDarkRatioPenalty(maskedRows, dimension * dimension);
+    return penalty;
+  }
+
+  private void embedTypeInfo(int maskPattern) throws WriterException {
+    MatrixUtil.embedTypeInfo(ecLevel, maskPattern, matrix);
+    for (int i = 0; i < dimension; i++) {
+      boolean rowBit = matrix.get(i, 8);
+      boolean columnBit = matrix.get(8, i);
+      assignBit(rows, 8, i, rowBit);
+      assignBit(columns, i, 8, rowBit);
+      assignBit(rows, i, 8, columnBit);
+      assignBit(columns, 8, i, columnBit);
+    }
+  }
+
+  private void assignBit(long[] bits, int row, int column, boolean value) {
+    int offset = row * rowSize + (column >> 6);
+    long mask = 1L << (column & 0x3F);
+    if (value) {
+      bits[offset] |= mask;
+    } else {
+      bits[offset] &= ~mask;
+    }
+  }
+
+}
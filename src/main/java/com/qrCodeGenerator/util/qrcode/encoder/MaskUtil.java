@@ -1,92 +1,63 @@
-
-
 package com.qrCodeGenerator.util.qrcode.encoder;
 
 
 final class MaskUtil {
 
-  private MaskUtil() {
+  private static final int MAX_WORDS = 3;
 
-  }
+  private static final long[][][] MASK_ROWS = new long[QRCode.NUM_MASK_PATTERNS][12][MAX_WORDS];
+  private static final long[][][] MASK_COLUMNS = new long[QRCode.NUM_MASK_PATTERNS][6][MAX_WORDS];
 
+  static {
+    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
+      for (int i = 0; i < MAX_WORDS << 6; i++) {
+        for (int y = 0; y < 12; y++) {
+          if (getDataMaskBit(maskPattern, i, y)) {
+            MASK_ROWS[maskPattern][y][i >> 6] |= 1L << (i & 0x3F);
+          }
+        }
+        for (int x = 0; x < 6; x++) {
+          if (getDataMaskBit(maskPattern, x, i)) {
+            MASK_COLUMNS[maskPattern][x][i >> 6] |= 1L << (i & 0x3F);
+          }
+        }
+      }
+    }
+  }
 
+  private MaskUtil() {
 
-  static int applyMaskPenaltyRule1(ByteMatrix matrix) {
-    return applyMaskPenaltyRule1Internal(matrix, true) + applyMaskPenaltyRule1Internal(matrix, false);
   }
 
 
 
-  static int applyMaskPenaltyRule2(ByteMatrix matrix) {
-    int penalty = 0;
-    byte[][] array = matrix.getArray();
+  static int applyMaskPenaltyRule1(ModuleMatrix matrix) {
     int width = matrix.getWidth();
     int height = matrix.getHeight();
-    for (int y = 0; y < height - 1; ++y) {
-      for (int x = 0; x < width - 1; ++x) {
-        int value = array[y][x];
-        if (value == array[y][x + 1] && value == array[y + 1][x] && value == array[y + 1][x + 1]) {
-          penalty += 3;
-        }
-      }
-    }
-    return penalty;
+    int rowSize = matrix.getRowSize();
+    int columnSize = (height + 63) >> 6;
+    long[] columns = transpose(matrix.getValues(), width, height, rowSize);
+    return applyRunPenalty(matrix.getValues(), width, height, rowSize) +
+        applyRunPenalty(columns, height, width, columnSize);
+  }
+
+
+
+  static int applyMaskPenaltyRule2(ModuleMatrix matrix) {
+    return applyBlockPenalty(matrix.getValues(), matrix.getWidth(), matrix.getHeight(), matrix.getRowSize());
   }
 
 
 
 
-  static int applyMaskPenaltyRule3(ByteMatrix matrix) {
-    int penalty = 0;
-    byte[][] array = matrix.getArray();
+  static int applyMaskPenaltyRule3(ModuleMatrix matrix) {
     int width = matrix.getWidth();
     int height = matrix.getHeight();
-    for (int y = 0; y < height; ++y) {
-      for (int x = 0; x < width; ++x) {
-
-        if (x + 6 < width &&
-            array[y][x] == 1 &&
-            array[y][x +  1] == 0 &&
-            array[y][x +  2] == 1 &&
-            array[y][x +  3] == 1 &&
-            array[y][x +  4] == 1 &&
-            array[y][x +  5] == 0 &&
-            array[y][x +  6] == 1 &&
-            ((x + 10 < width &&
-                array[y][x +  7] == 0 &&
-                array[y][x +  8] == 0 &&
-                array[y][x +  9] == 0 &&
-                array[y][x + 10] == 0) ||
-                (x - 4 >= 0 &&
-                    array[y][x -  1] == 0 &&
-                    array[y][x -  2] == 0 &&
-                    array[y][x -  3] == 0 &&
-                    array[y][x -  4] == 0))) {
-          penalty += 40;
-        }
-        if (y + 6 < height &&
-            array[y][x] == 1  &&
-            array[y +  1][x] == 0  &&
-            array[y +  2][x] == 1  &&
-            array[y +  3][x] == 1  &&
-            array[y +  4][x] == 1  &&
-            array[y +  5][x] == 0  &&
-            array[y +  6][x] == 1 &&
-            ((y + 10 < height &&
-                array[y +  7][x] == 0 &&
-                array[y +  8][x] == 0 &&
-                array[y +  9][x] == 0 &&
-                array[y + 10][x] == 0) ||
-                (y - 4 >= 0 &&
-                    array[y -  1][x] == 0 &&
-                    array[y -  2][x] == 0 &&
-                    array[y -  3][x] == 0 &&
-                    array[y -  4][x] == 0))) {
-          penalty += 40;
-        }
-      }
-    }
-    return penalty;
+    int rowSize = matrix.getRowSize();
+    int columnSize = (height + 63) >> 6;
+    long[] columns = transpose(matrix.getValues(), width, height, rowSize);
+    return applyFinderPenalty(matrix.getValues(), height, rowSize) +
+        applyFinderPenalty(columns, width, columnSize);
   }
 
 
@@ -98,21 +69,8 @@ final class MaskUtil {
 
 
 
-  static int applyMaskPenaltyRule4(ByteMatrix matrix) {
-    int numDarkCells = 0;
-    byte[][] array = matrix.getArray();
-    int width = matrix.getWidth();
-    int height = matrix.getHeight();
-    for (int y = 0; y < height; ++y) {
-      for (int x = 0; x < width; ++x) {
-        if (array[y][x] == 1) {
-          numDarkCells += 1;
-        }
-      }
-    }
-    int numTotalCells = matrix.getHeight() * matrix.getWidth();
-    double darkRatio = (double) numDarkCells / numTotalCells;
-    return Math.abs((int) (darkRatio * 100 - 50)) / 5 * 10;
+  static int applyMaskPenaltyRule4(ModuleMatrix matrix) {
+    return applyDarkRatioPenalty(matrix.getValues(), matrix.getWidth() * matrix.getHeight());
   }
 
 
@@ -158,44 +116,155 @@ final class MaskUtil {
   }
 
 
-
-  private static int applyMaskPenaltyRule1Internal(ByteMatrix matrix, boolean isHorizontal) {
-    int penalty = 0;
-    int numSameBitCells = 0;
-    int prevBit = -1;
-
-
+  static void applyDataMask(int maskPattern, ModuleMatrix matrix) {
+    long[] values = matrix.getValues();
+    long[] function = matrix.getFunction();
+    int rowSize = matrix.getRowSize();
+    long lastWordMask = matrix.getLastWordMask();
+    long[][] maskRows = MASK_ROWS[maskPattern];
+    for (int y = 0; y < matrix.getHeight(); y++) {
+      long[] maskRow = maskRows[y % 12];
+      int offset = y * rowSize;
+      for (int w = 0; w < rowSize; w++) {
+        long valid = w == rowSize - 1 ? lastWordMask : -1L;
+        values[offset + w] ^= maskRow[w] & ~function[offset + w] & valid;
+      }
+    }
+  }
 
 
+  static void applyDataMask(int maskPattern,
+                            long[] rows,
+                            long[] dataRows,
+                            long[] columns,
+                            long[] dataColumns,
+                            int dimension,
+                            int rowSize,
+                            long[] maskedRows,
+                            long[] maskedColumns) {
+    long[][] maskRows = MASK_ROWS[maskPattern];
+    long[][] maskColumns = MASK_COLUMNS[maskPattern];
+    for (int i = 0; i < dimension; i++) {
+      long[] maskRow = maskRows[i % 12];
+      long[] maskColumn = maskColumns[i % 6];
+      int offset = i * rowSize;
+      for (int w = 0; w < rowSize; w++) {
+        maskedRows[offset + w] = rows[offset + w] ^ (maskRow[w] & dataRows[offset + w]);
+        maskedColumns[offset + w] = columns[offset + w] ^ (maskColumn[w] & dataColumns[offset + w]);
+      }
+    }
+  }
 
 
+  static long[] transpose(long[] bits, int width, int height, int rowSize) {
+    int columnSize = (height + 63) >> 6;
+    long[] result = new long[width * columnSize];
+    for (int y = 0; y < height; y++) {
+      int offset = y * rowSize;
+      for (int w = 0; w < rowSize; w++) {
+        long word = bits[offset + w];
+        while (word != 0) {
+          int x = (w << 6) + Long.numberOfTrailingZeros(word);
+          result[x * columnSize + (y >> 6)] |= 1L << (y & 0x3F);
+          word &= word - 1;
+        }
+      }
+    }
+    return result;
+  }
 
 
-    int iLimit = isHorizontal ? matrix.getHeight() : matrix.getWidth();
-    int jLimit = isHorizontal ? matrix.getWidth() : matrix.getHeight();
-    byte[][] array = matrix.getArray();
-    for (int i = 0; i < iLimit; ++i) {
-      for (int j = 0; j < jLimit; ++j) {
-        int bit = isHorizontal ? array[i][j] : array[j][i];
-        if (bit == prevBit) {
-          numSameBitCells += 1;
+  static int applyRunPenalty(long[] bits, int width, int height, int rowSize) {
+    int penalty = 0;
+    for (int w = 0; w < rowSize; w++) {
+      int remaining = width - (w << 6);
+      long valid = remaining >= 64 ? -1L : (1L << remaining) - 1;
+      long same1 = 0L;
+      long same2 = 0L;
+      long same3 = 0L;
+      long same4 = 0L;
+      long previous = bits[w];
+      for (int y = 1; y < height; y++) {
+        long current = bits[y * rowSize + w];
+        long same = ~(current ^ previous) & valid;
+        long runOfFive = same & same1 & same2 & same3;
+        penalty += 3 * Long.bitCount(runOfFive & ~same4) + Long.bitCount(runOfFive & same4);
+        same4 = same3;
+        same3 = same2;
+        same2 = same1;
+        same1 = same;
+        previous = current;
+      }
+    }
+    return penalty;
+  }
 
 
-          if (numSameBitCells == 5) {
-            penalty += 3;
-          } else if (numSameBitCells > 5) {
+  static int applyBlockPenalty(long[] bits, int width, int height, int rowSize) {
+    int penalty = 0;
+    for (int w = 0; w < rowSize; w++) {
+      int remaining = width - 1 - (w << 6);
+      long valid = remaining >= 64 ? -1L : remaining <= 0 ? 0L : (1L << remaining) - 1;
+      for (int y = 0; y < height - 1; y++) {
+        int offset = y * rowSize + w;
+        long top = bits[offset];
+        long bottom = bits[offset + rowSize];
+        long topNext = top >>> 1;
+        long bottomNext = bottom >>> 1;
+        if (w + 1 < rowSize) {
+          topNext |= bits[offset + 1] << 63;
+          bottomNext |= bits[offset + rowSize + 1] << 63;
+        }
+        long same = ~(top ^ bottom) & ~(top ^ topNext) & ~(top ^ bottomNext);
+        penalty += 3 * Long.bitCount(same & valid);
+      }
+    }
+    return penalty;
+  }
 
 
-            penalty += 1;
-          }
-        } else {
-          numSameBitCells = 1;
-          prevBit = bit;
+  static int applyFinderPenalty(long[] bits, int height, int rowSize) {
+    int penalty = 0;
+    for (int y = 0; y + 6 < height; y++) {
+      for (int w = 0; w < rowSize; w++) {
+        int offset = y * rowSize + w;
+        long pattern = bits[offset] &
+            ~bits[offset + rowSize] &
+            bits[offset + 2 * rowSize] &
+            bits[offset + 3 * rowSize] &
+            bits[offset + 4 * rowSize] &
+            ~bits[offset + 5 * rowSize] &
+            bits[offset + 6 * rowSize];
+        if (pattern == 0) {
+          continue;
+        }
+        long white = 0L;
+        if (y + 10 < height) {
+          white |= ~(bits[offset + 7 * rowSize] |
+              bits[offset + 8 * rowSize] |
+              bits[offset + 9 * rowSize] |
+              bits[offset + 10 * rowSize]);
         }
+        if (y - 4 >= 0) {
+          white |= ~(bits[offset - rowSize] |
+              bits[offset - 2 * rowSize] |
+              bits[offset - 3 * rowSize] |
+              bits[offset - 4 * rowSize]);
+        }
+        penalty += 40 * Long.bitCount(pattern & white);
       }
-      numSameBitCells = 0;
     }
     return penalty;
   }
 
+
+  static int applyDarkRatioPenalty(long[] bits, int numTotalCells) {
+    int numDarkCells = 0;
+    for (long word : bits) {
+      numDarkCells += Long.bitCount(word);
+    }
+    double darkRatio = (double) numDarkCells / numTotalCells;
+    return Math.abs((int) (darkRatio * 100 - 50)) / 5 * 10;
+  }
+
 }
@@ -0,0 +1,170 @@
+package com.qrCodeGenerator.util.qrcode.encoder;
+
+import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.common.BitArray;
+import com.qrCodeGenerator.util.qrcode.decoder.ErrorCorrectionLevel;
+import com.qrCodeGenerator.util.qrcode.decoder.Version;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+final class MatrixTemplate {
+
+  private static final int NUM_VERSIONS = 40;
+
+  private static final AtomicReferenceArray<MatrixTemplate> TEMPLATES =
+      new AtomicReferenceArray<MatrixTemplate>(NUM_VERSIONS);
+
+  private final int dimension;
+  private final int rowSize;
+  private final long[] values;
+  private final long[] function;
+  private final long[] dataRows;
+  private final long[] columns;
+  private final long[] dataColumns;
+
+  private final int[] dataPositions;
+
+  private MatrixTemplate(int version) throws WriterException {
+    dimension = Version.getVersionForNumber(version).getDimensionForVersion();
+    ModuleMatrix matrix = new ModuleMatrix(dimension, dimension);
+    MatrixUtil.embedBasicPatterns(version, matrix);
+
+    MatrixUtil.embedTypeInfo(ErrorCorrectionLevel.L, 0, matrix);
+    MatrixUtil.maybeEmbedVersionInfo(version, matrix);
+
+    rowSize = matrix.getRowSize();
+    values = matrix.getValues();
+    function = matrix.getFunction();
+    long lastWordMask = matrix.getLastWordMask();
+    dataRows = new long[function.length];
+    for (int i = 0; i < function.length; i++) {
+      long valid = i % rowSize == rowSize - 1 ? lastWordMask : -1L;
+      dataRows[i] = ~function[i] & valid;
+    }
+    columns = MaskUtil.transpose(values, dimension, dimension, rowSize);
+    dataColumns = MaskUtil.transpose(dataRows, dimension, dimension, rowSize);
+    dataPositions = buildDataPositions(matrix);
+  }
+
+  static MatrixTemplate getInstance(int version) throws WriterException {
+    if (version < 1 || version > NUM_VERSIONS) {
+      throw new WriterException("Invalid version: " + version);
+    }
+    MatrixTemplate template = TEMPLATES.get(version - 1);
+    if (template == null) {
+      template = new MatrixTemplate(version);
+      if (!TEMPLATES.compareAndSet(version - 1, null, template)) {
+        template = TEMPLATES.get(version - 1);
+      }
+    }
+    return template;
+  }
+
+
+  private static int[] buildDataPositions(ModuleMatrix matrix) {
+    int width = matrix.getWidth();
+    int height = matrix.getHeight();
+    int[] positions = new int[width * height];
+    int numPositions = 0;
+    int direction = -1;
+
+    int x = width - 1;
+    int y = height - 1;
+    while (x > 0) {
+
+      if (x == 6) {
+        x -= 1;
+      }
+      while (y >= 0 && y < height) {
+        for (int i = 0; i < 2; ++i) {
+          int xx = x - i;
+
+          if (!matrix.isFunction(xx, y)) {
+            positions[numPositions++] = (y << 8) | xx;
+          }
+        }
+        y += direction;
+      }
+      direction = -direction;
+      y += direction;
+      x -= 2;
+    }
+    int[] result = new int[numPositions];
+    System.arraycopy(positions, 0, result, 0, numPositions);
+    return result;
+  }
+
+  long[] getDataRows() {
+    return dataRows;
+  }
+
+  long[] getDataColumns() {
+    return dataColumns;
+  }
+
+  long[] copyColumns() {
+    return columns.clone();
+  }
+
+
+  void copyTo(ModuleMatrix matrix) {
+    if (matrix.getWidth() != dimension || matrix.getHeight() != dimension) {
+      throw new IllegalArgumentException("Matrix size does not match version template");
+    }
+    System.arraycopy(values, 0, matrix.getValues(), 0, values.length);
+    System.arraycopy(function, 0, matrix.getFunction(), 0, function.length);
+  }
+
+
+  void embedDataBits(BitArray dataBits, long[] rows, long[] transposed) throws WriterException {
+    int size = dataBits.getSize();
+    if (size > dataPositions.length) {
+      throw new WriterException("Not all bits consumed: " + dataPositions.length + '/' + size);
+    }
+    int rowBits = rowSize << 6;
+    int[] words = dataBits.getBitArray();
+    int numWords = (size + 31) >> 5;
+    for (int w = 0; w < numWords; w++) {
+      int word = words[w];
+      if (w == numWords - 1 && (size & 0x1F) != 0) {
+        word &= (1 << (size & 0x1F)) - 1;
+      }
+      while (word != 0) {
+        int position = dataPositions[(w << 5) + Integer.numberOfTrailingZeros(word)];
+        int x = position & 0xFF;
+        int y = position >>> 8;
+        int rowBit = y * rowBits + x;
+        rows[rowBit >> 6] |= 1L << (rowBit & 0x3F);
+        if (transposed != null) {
+          int columnBit = x * rowBits + y;
+          transposed[columnBit >> 6] |= 1L << (columnBit & 0x3F);
+        }
+        word &= word - 1;
+      }
+    }
+  }
+
+
+  long getSizeInBytes() {
+    return 32 + arraySize(values) + arraySize(function) + arraySize(dataRows) +
+        arraySize(columns) + arraySize(dataColumns) + 16 + 4L * dataPositions.length;
+  }
+
+  private static long arraySize(long[] array) {
+    return 16 + 8L * array.length;
+  }
+
+
+  static long getCacheSizeInBytes() {
+    long size = 16 + 4L * NUM_VERSIONS;
+    for (int i = 0; i < NUM_VERSIONS; i++) {
+      MatrixTemplate template = TEMPLATES.get(i);
+      if (template != null) {
+        size += template.getSizeInBytes();
+      }
+    }
+    return size;
+  }
+
+}
@@ -113,8 +113,8 @@ final class MatrixUtil {
 
 
 
-  static void clearMatrix(ByteMatrix matrix) {
-    matrix.clear((byte) -1);
+  static void clearMatrix(ModuleMatrix matrix) {
+    matrix.clear();
   }
 
 
@@ -123,15 +123,13 @@ final class MatrixUtil {
                           ErrorCorrectionLevel ecLevel,
                           int version,
                           int maskPattern,
-                          ByteMatrix matrix) throws WriterException {
-    clearMatrix(matrix);
-    embedBasicPatterns(version, matrix);
+                          ModuleMatrix matrix) throws WriterException {
+    MatrixTemplate template = MatrixTemplate.getInstance(version);
+    template.copyTo(matrix);
 
     embedTypeInfo(ecLevel, maskPattern, matrix);
 
-    maybeEmbedVersionInfo(version, matrix);
-
-    embedDataBits(dataBits, maskPattern, matrix);
+    embedDataBits(dataBits, maskPattern, template, matrix);
   }
 
 
@@ -140,7 +138,7 @@ final class MatrixUtil {
 
 
 
-  static void embedBasicPatterns(int version, ByteMatrix matrix) throws WriterException {
+  static void embedBasicPatterns(int version, ModuleMatrix matrix) throws WriterException {
 
     embedPositionDetectionPatternsAndSeparators(matrix);
 
@@ -153,7 +151,7 @@ final class MatrixUtil {
   }
 
 
-  static void embedTypeInfo(ErrorCorrectionLevel ecLevel, int maskPattern, ByteMatrix matrix)
+  static void embedTypeInfo(ErrorCorrectionLevel ecLevel, int maskPattern, ModuleMatrix matrix)
       throws WriterException {
     BitArray typeInfoBits = new BitArray();
     makeTypeInfoBits(ecLevel, maskPattern, typeInfoBits);
@@ -166,25 +164,25 @@ final class MatrixUtil {
 
       int x1 = TYPE_INFO_COORDINATES[i][0];
       int y1 = TYPE_INFO_COORDINATES[i][1];
-      matrix.set(x1, y1, bit);
+      matrix.setFunction(x1, y1, bit);
 
       if (i < 8) {
 
         int x2 = matrix.getWidth() - i - 1;
         int y2 = 8;
-        matrix.set(x2, y2, bit);
+        matrix.setFunction(x2, y2, bit);
       } else {
 
         int x2 = 8;
         int y2 = matrix.getHeight() - 7 + (i - 8);
-        matrix.set(x2, y2, bit);
+        matrix.setFunction(x2, y2, bit);
       }
     }
   }
 
 
 
-  static void maybeEmbedVersionInfo(int version, ByteMatrix matrix) throws WriterException {
+  static void maybeEmbedVersionInfo(int version, ModuleMatrix matrix) throws WriterException {
     if (version < 7) {
       return;
     }
@@ -198,9 +196,9 @@ final class MatrixUtil {
         boolean bit = versionInfoBits.get(bitIndex);
         bitIndex--;
 
-        matrix.set(i, matrix.getHeight() - 11 + j, bit);
+        matrix.setFunction(i, matrix.getHeight() - 11 + j, bit);
 
-        matrix.set(matrix.getHeight() - 11 + j, i, bit);
+        matrix.setFunction(matrix.getHeight() - 11 + j, i, bit);
       }
     }
   }
@@ -208,52 +206,14 @@ final class MatrixUtil {
 
 
 
-  static void embedDataBits(BitArray dataBits, int maskPattern, ByteMatrix matrix)
-      throws WriterException {
-    int bitIndex = 0;
-    int direction = -1;
-
-    int x = matrix.getWidth() - 1;
-    int y = matrix.getHeight() - 1;
-    while (x > 0) {
+  static void embedDataBits(BitArray dataBits,
+                            int maskPattern,
+                            MatrixTemplate template,
+                            ModuleMatrix matrix) throws WriterException {
+    template.embedDataBits(dataBits, matrix.getValues(), null);
 
-      if (x == 6) {
-        x -= 1;
-      }
-      while (y >= 0 && y < matrix.getHeight()) {
-        for (int i = 0; i < 2; ++i) {
-          int xx = x - i;
-
-          if (!isEmpty(matrix.get(xx, y))) {
-            continue;
-          }
-          boolean bit;
-          if (bitIndex < dataBits.getSize()) {
-            bit = dataBits.get(bitIndex);
-            ++bitIndex;
-          } else {
-
-
-            bit = false;
-          }
-
-
-          if (maskPattern != -1) {
-            if (MaskUtil.getDataMaskBit(maskPattern, xx, y)) {
-              bit = !bit;
-            }
-          }
-          matrix.set(xx, y, bit);
-        }
-        y += direction;
-      }
-      direction = -direction;
-      y += direction;
-      x -= 2;
-    }
-
-    if (bitIndex != dataBits.getSize()) {
-      throw new WriterException("Not all bits consumed: " + bitIndex + '/' + dataBits.getSize());
+    if (maskPattern != -1) {
+      MaskUtil.applyDataMask(maskPattern, matrix);
     }
   }
 
@@ -345,74 +305,57 @@ final class MatrixUtil {
   }
 
 
-  private static boolean isEmpty(int value) {
-    return value == -1;
-  }
-
-
-  private static boolean isValidValue(int value) {
-    return value == -1 ||
-        value == 0 ||
-        value == 1;
-  }
-
-  private static void embedTimingPatterns(ByteMatrix matrix) throws WriterException {
+  private static void embedTimingPatterns(ModuleMatrix matrix) throws WriterException {
 
 
     for (int i = 8; i < matrix.getWidth() - 8; ++i) {
       int bit = (i + 1) % 2;
 
-      if (!isValidValue(matrix.get(i, 6))) {
-        throw new WriterException();
-      }
-      if (isEmpty(matrix.get(i, 6))) {
-        matrix.set(i, 6, bit);
+      if (!matrix.isFunction(i, 6)) {
+        matrix.setFunction(i, 6, bit);
       }
 
-      if (!isValidValue(matrix.get(6, i))) {
-        throw new WriterException();
-      }
-      if (isEmpty(matrix.get(6, i))) {
-        matrix.set(6, i, bit);
+      if (!matrix.isFunction(6, i)) {
+        matrix.setFunction(6, i, bit);
       }
     }
   }
 
 
-  private static void embedDarkDotAtLeftBottomCorner(ByteMatrix matrix) throws WriterException {
-    if (matrix.get(8, matrix.getHeight() - 8) == 0) {
+  private static void embedDarkDotAtLeftBottomCorner(ModuleMatrix matrix) throws WriterException {
+    if (matrix.isFunction(8, matrix.getHeight() - 8) && !matrix.get(8, matrix.getHeight() - 8)) {
       throw new WriterException();
     }
-    matrix.set(8, matrix.getHeight() - 8, 1);
+    matrix.setFunction(8, matrix.getHeight() - 8, true);
   }
 
   private static void embedHorizontalSeparationPattern(int xStart,
                                                        int yStart,
-                                                       ByteMatrix matrix) throws WriterException {
+                                                       ModuleMatrix matrix) throws WriterException {
 
     if (HORIZONTAL_SEPARATION_PATTERN[0].length != 8 || HORIZONTAL_SEPARATION_PATTERN.length != 1) {
       throw new WriterException("Bad horizontal separation pattern");
     }
     for (int x = 0; x < 8; ++x) {
-      if (!isEmpty(matrix.get(xStart + x, yStart))) {
+      if (matrix.isFunction(xStart + x, yStart)) {
         throw new WriterException();
       }
-      matrix.set(xStart + x, yStart, HORIZONTAL_SEPARATION_PATTERN[0][x]);
+      matrix.setFunction(xStart + x, yStart, HORIZONTAL_SEPARATION_PATTERN[0][x]);
     }
   }
 
   private static void embedVerticalSeparationPattern(int xStart,
                                                      int yStart,
-                                                     ByteMatrix matrix) throws WriterException {
+                                                     ModuleMatrix matrix) throws WriterException {
 
     if (VERTICAL_SEPARATION_PATTERN[0].length != 1 || VERTICAL_SEPARATION_PATTERN.length != 7) {
       throw new WriterException("Bad vertical separation pattern");
     }
     for (int y = 0; y < 7; ++y) {
-      if (!isEmpty(matrix.get(xStart, yStart + y))) {
+      if (matrix.isFunction(xStart, yStart + y)) {
         throw new WriterException();
       }
-      matrix.set(xStart, yStart + y, VERTICAL_SEPARATION_PATTERN[y][0]);
+      matrix.setFunction(xStart, yStart + y, VERTICAL_SEPARATION_PATTERN[y][0]);
     }
   }
 
@@ -421,40 +364,40 @@ final class MatrixUtil {
 
   private static void embedPositionAdjustmentPattern(int xStart,
                                                      int yStart,
-                                                     ByteMatrix matrix) throws WriterException {
+                                                     ModuleMatrix matrix) throws WriterException {
 
     if (POSITION_ADJUSTMENT_PATTERN[0].length != 5 || POSITION_ADJUSTMENT_PATTERN.length != 5) {
       throw new WriterException("Bad position adjustment");
     }
     for (int y = 0; y < 5; ++y) {
       for (int x = 0; x < 5; ++x) {
-        if (!isEmpty(matrix.get(xStart + x, yStart + y))) {
+        if (matrix.isFunction(xStart + x, yStart + y)) {
           throw new WriterException();
         }
-        matrix.set(xStart + x, yStart + y, POSITION_ADJUSTMENT_PATTERN[y][x]);
+        matrix.setFunction(xStart + x, yStart + y, POSITION_ADJUSTMENT_PATTERN[y][x]);
       }
     }
   }
 
   private static void embedPositionDetectionPattern(int xStart,
                                                     int yStart,
-                                                    ByteMatrix matrix) throws WriterException {
+                                                    ModuleMatrix matrix) throws WriterException {
 
     if (POSITION_DETECTION_PATTERN[0].length != 7 || POSITION_DETECTION_PATTERN.length != 7) {
       throw new WriterException("Bad position detection pattern");
     }
     for (int y = 0; y < 7; ++y) {
       for (int x = 0; x < 7; ++x) {
-        if (!isEmpty(matrix.get(xStart + x, yStart + y))) {
+        if (matrix.isFunction(xStart + x, yStart + y)) {
           throw new WriterException();
         }
-        matrix.set(xStart + x, yStart + y, POSITION_DETECTION_PATTERN[y][x]);
+        matrix.setFunction(xStart + x, yStart + y, POSITION_DETECTION_PATTERN[y][x]);
       }
     }
   }
 
 
-  private static void embedPositionDetectionPatternsAndSeparators(ByteMatrix matrix) throws WriterException {
+  private static void embedPositionDetectionPatternsAndSeparators(ModuleMatrix matrix) throws WriterException {
 
     int pdpWidth = POSITION_DETECTION_PATTERN[0].length;
 
@@ -486,7 +429,7 @@ final class MatrixUtil {
   }
 
 
-  private static void maybeEmbedPositionAdjustmentPatterns(int version, ByteMatrix matrix)
+  private static void maybeEmbedPositionAdjustmentPatterns(int version, ModuleMatrix matrix)
       throws WriterException {
     if (version < 2) {
       return;
@@ -502,7 +445,7 @@ final class MatrixUtil {
           continue;
         }
 
-        if (isEmpty(matrix.get(x, y))) {
+        if (!matrix.isFunction(x, y)) {
 
 
           embedPositionAdjustmentPattern(x - 2, y - 2, matrix);
@@ -0,0 +1,276 @@
+package com.qrCodeGenerator.util.qrcode.encoder;
+
+import com.qrCodeGenerator.util.WriterException;
+import com.qrCodeGenerator.util.qrcode.decoder.Mode;
+import com.qrCodeGenerator.util.qrcode.decoder.Version;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+final class MinimalSegmenter {
+
+  private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+  private static final int NUMERIC_0 = 0;
+  private static final int NUMERIC_1 = 1;
+  private static final int NUMERIC_2 = 2;
+  private static final int ALPHANUMERIC_0 = 3;
+  private static final int ALPHANUMERIC_1 = 4;
+  private static final int BYTE = 5;
+  private static final int KANJI = 6;
+  private static final int NUM_STATES = 7;
+
+  private static final Mode[] STATE_MODES = {
+      Mode.NUMERIC, Mode.NUMERIC, Mode.NUMERIC,
+      Mode.ALPHANUMERIC, Mode.ALPHANUMERIC,
+      Mode.BYTE,
+      Mode.KANJI,
+  };
+
+  private final int numUnits;
+  private final int[] unitStarts;
+  private final boolean[] numeric;
+  private final boolean[] alphanumeric;
+  private final boolean[] kanji;
+  private final int[] byteCounts;
+
+  private MinimalSegmenter(String content, String encoding) throws WriterException {
+    int length = content.length();
+    int count = content.codePointCount(0, length);
+    numUnits = count;
+    unitStarts = new int[count + 1];
+    numeric = new boolean[count];
+    alphanumeric = new boolean[count];
+    kanji = new boolean[count];
+    byteCounts = new int[count];
+    int offset = 0;
+    try {
+      for (int i = 0; i < count; i++) {
+        unitStarts[i] = offset;
+        int codePoint = content.codePointAt(offset);
+        int next = offset + Character.charCount(codePoint);
+        String unit = content.substring(offset, next);
+        numeric[i] = codePoint >= '0' && codePoint <= '9';
+        alphanumeric[i] = Encoder.getAlphanumericCode(codePoint) != -1;
+        kanji[i] = codePoint >= 0x80 && isKanji(unit.getBytes("Shift_JIS"));
+        byteCounts[i] = codePoint < 0x80 && isAsciiCompatible(encoding) ? 1 : unit.getBytes(encoding).length;
+        offset = next;
+      }
+    } catch (UnsupportedEncodingException uee) {
+      throw new WriterException(uee.toString());
+    }
+    unitStarts[count] = length;
+  }
+
+
+  static List<Segment> segment(String content, String encoding, Version version, int eciBits)
+      throws WriterException {
+    MinimalSegmenter segmenter = new MinimalSegmenter(content, encoding);
+    List<Segment> withBytes = segmenter.segment(version, true);
+    if (eciBits == 0 || !containsMode(withBytes, Mode.BYTE)) {
+      return withBytes;
+    }
+    List<Segment> withoutBytes = segmenter.segment(version, false);
+    if (withoutBytes != null &&
+        segmenter.getDataBits(withoutBytes, version) <= segmenter.getDataBits(withBytes, version) + eciBits) {
+      return withoutBytes;
+    }
+    return withBytes;
+  }
+
+  private List<Segment> segment(Version version, boolean allowBytes) {
+    if (numUnits == 0) {
+      List<Segment> segments = new ArrayList<Segment>(1);
+      segments.add(new Segment(Mode.BYTE, 0, 0));
+      return segments;
+    }
+    int[] headerBits = new int[NUM_STATES];
+    for (int state = 0; state < NUM_STATES; state++) {
+      headerBits[state] = 4 + STATE_MODES[state].getCharacterCountBits(version);
+    }
+
+    int[][] cost = new int[numUnits + 1][NUM_STATES];
+    byte[][] previous = new byte[numUnits + 1][NUM_STATES];
+    for (int i = 1; i <= numUnits; i++) {
+      for (int state = 0; state < NUM_STATES; state++) {
+        cost[i][state] = INFINITY;
+      }
+    }
+
+    for (int i = 0; i < numUnits; i++) {
+      int[] current = cost[i + 1];
+      byte[] back = previous[i + 1];
+      int lastState = i == 0 ? -1 : NUM_STATES - 1;
+      for (int from = -1; from <= lastState; from++) {
+        int base = from < 0 ? (i == 0 ? 0 : INFINITY) : cost[i][from];
+        if (base >= INFINITY) {
+          continue;
+        }
+        if (numeric[i]) {
+          if (from >= NUMERIC_0 && from <= NUMERIC_2) {
+            relax(current, back, (from + 1) % 3, base + (from == NUMERIC_0 ? 4 : 3), from);
+          } else {
+            relax(current, back, NUMERIC_1, base + headerBits[NUMERIC_1] + 4, from);
+          }
+        }
+        if (alphanumeric[i]) {
+          if (from == ALPHANUMERIC_0) {
+            relax(current, back, ALPHANUMERIC_1, base + 6, from);
+          } else if (from == ALPHANUMERIC_1) {
+            relax(current, back, ALPHANUMERIC_0, base + 5, from);
+          } else {
+            relax(current, back, ALPHANUMERIC_1, base + headerBits[ALPHANUMERIC_1] + 6, from);
+          }
+        }
+        if (kanji[i]) {
+          relax(current, back, KANJI, base + (from == KANJI ? 0 : headerBits[KANJI]) + 13, from);
+        }
+        if (allowBytes) {
+          relax(current, back, BYTE, base + (from == BYTE ? 0 : headerBits[BYTE]) + 8 * byteCounts[i], from);
+        }
+      }
+    }
+
+    int state = -1;
+    int best = INFINITY;
+    for (int s = 0; s < NUM_STATES; s++) {
+      if (cost[numUnits][s] < best) {
+        best = cost[numUnits][s];
+        state = s;
+      }
+    }
+    if (state < 0) {
+      return null;
+    }
+
+    Mode[] modes = new Mode[numUnits];
+    for (int i = numUnits; i > 0; i--) {
+      modes[i - 1] = STATE_MODES[state];
+      state = previous[i][state];
+    }
+    return toSegments(modes, version);
+  }
+
+  private static void relax(int[] cost, byte[] previous, int state, int value, int from) {
+    if (value < cost[state]) {
+      cost[state] = value;
+      previous[state] = (byte) from;
+    }
+  }
+
+
+  private List<Segment> toSegments(Mode[] modes, Version version) {
+    List<Segment> segments = new ArrayList<Segment>();
+    int start = 0;
+    while (start < numUnits) {
+      Mode mode = modes[start];
+      int maxLetters = (1 << mode.getCharacterCountBits(version)) - 1;
+      int letters = 0;
+      int end = start;
+      while (end < numUnits && modes[end] == mode) {
+        int unitLetters = mode == Mode.BYTE ? byteCounts[end] : 1;
+        if (letters + unitLetters > maxLetters) {
+          break;
+        }
+        letters += unitLetters;
+        end++;
+      }
+      if (end == start) {
+        end++;
+      }
+      segments.add(new Segment(mode, unitStarts[start], unitStarts[end]));
+      start = end;
+    }
+    return segments;
+  }
+
+  private int getDataBits(List<Segment> segments, Version version) {
+    int bits = 0;
+    int unit = 0;
+    for (Segment segment : segments) {
+      Mode mode = segment.getMode();
+      bits += 4 + mode.getCharacterCountBits(version);
+      int letters = 0;
+      int byteCount = 0;
+      while (unit < numUnits && unitStarts[unit] < segment.getEnd()) {
+        letters++;
+        byteCount += byteCounts[unit];
+        unit++;
+      }
+      switch (mode) {
+        case NUMERIC:
+          bits += 10 * (letters / 3) + (letters % 3 == 0 ? 0 : letters % 3 == 1 ? 4 : 7);
+          break;
+        case ALPHANUMERIC:
+          bits += 11 * (letters / 2) + 6 * (letters % 2);
+          break;
+        case KANJI:
+          bits += 13 * letters;
+          break;
+        default:
+          bits += 8 * byteCount;
+          break;
+      }
+    }
+    return bits;
+  }
+
+  private static boolean containsMode(List<Segment> segments, Mode mode) {
+    for (Segment segment : segments) {
+      if (segment.getMode() == mode) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isKanji(byte[] bytes) {
+    if (bytes.length != 2) {
+      return false;
+    }
+    int code = ((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF);
+    return (code >= 0x8140 && code <= 0x9ffc) || (code >= 0xe040 && code <= 0xebbf);
+  }
+
+  private static boolean isAsciiCompatible(String encoding) {
+    return "ISO-8859-1".equalsIgnoreCase(encoding) ||
+        "UTF-8".equalsIgnoreCase(encoding) ||
+        "US-ASCII".equalsIgnoreCase(encoding) ||
+        "Shift_JIS".equalsIgnoreCase(encoding);
+  }
+
+
+  static final class Segment {
+
+    private final Mode mode;
+    private final int start;
+    private final int end;
+
+    Segment(Mode mode, int start, int end) {
+      this.mode = mode;
+      this.start = start;
+      this.end = end;
+    }
+
+    Mode getMode() {
+      return mode;
+    }
+
+    int getStart() {
+      return start;
+    }
+
+    int getEnd() {
+      return end;
+    }
+
+    @Override
+    public String toString() {
+      return mode + "[" + start + ',' + end + ')';
+    }
+
+  }
+
+}
@@ -0,0 +1,133 @@
+package com.qrCodeGenerator.util.qrcode.encoder;
+
+import com.qrCodeGenerator.util.common.BitMatrix;
+
+
+public final class ModuleMatrix {
+
+  private final int width;
+  private final int height;
+  private final int rowSize;
+  private final long lastWordMask;
+  private final long[] values;
+  private final long[] function;
+
+  public ModuleMatrix(int width, int height) {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("Both dimensions must be greater than 0");
+    }
+    this.width = width;
+    this.height = height;
+    this.rowSize = (width + 63) >> 6;
+    int remainder = width & 0x3F;
+    this.lastWordMask = remainder == 0 ? -1L : (1L << remainder) - 1;
+    values = new long[rowSize * height];
+    function = new long[rowSize * height];
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  int getRowSize() {
+    return rowSize;
+  }
+
+  long getLastWordMask() {
+    return lastWordMask;
+  }
+
+  long[] getValues() {
+    return values;
+  }
+
+  long[] getFunction() {
+    return function;
+  }
+
+  public boolean get(int x, int y) {
+    return ((values[y * rowSize + (x >> 6)] >>> (x & 0x3F)) & 1L) != 0;
+  }
+
+  public boolean isFunction(int x, int y) {
+    return ((function[y * rowSize + (x >> 6)] >>> (x & 0x3F)) & 1L) != 0;
+  }
+
+  void set(int x, int y, boolean value) {
+    int offset = y * rowSize + (x >> 6);
+    long mask = 1L << (x & 0x3F);
+    if (value) {
+      values[offset] |= mask;
+    } else {
+      values[offset] &= ~mask;
+    }
+  }
+
+  void setFunction(int x, int y, boolean value) {
+    function[y * rowSize + (x >> 6)] |= 1L << (x & 0x3F);
+    set(x, y, value);
+  }
+
+  void setFunction(int x, int y, int value) {
+    setFunction(x, y, value == 1);
+  }
+
+  void clear() {
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 0L;
+      function[i] = 0L;
+    }
+  }
+
+  public ByteMatrix toByteMatrix() {
+    ByteMatrix result = new ByteMatrix(width, height);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        result.set(x, y, get(x, y));
+      }
+    }
+    return result;
+  }
+
+  public BitMatrix toBitMatrix() {
+    BitMatrix result = new BitMatrix(width, height);
+    for (int y = 0; y < height; y++) {
+      int offset = y * rowSize;
+      for (int w = 0; w < rowSize; w++) {
+        long word = values[offset + w];
+        while (word != 0) {
+          result.set((w << 6) + Long.numberOfTrailingZeros(word), y);
+          word &= word - 1;
+        }
+      }
+    }
+    return result;
+  }
+
+  static ModuleMatrix fromByteMatrix(ByteMatrix matrix) {
+    ModuleMatrix result = new ModuleMatrix(matrix.getWidth(), matrix.getHeight());
+    for (int y = 0; y < result.height; y++) {
+      for (int x = 0; x < result.width; x++) {
+        result.set(x, y, matrix.get(x, y) == 1);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(2 * width * height + 2);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        result.append(get(x, y) ? " 1" : " 0");
+      }
+      result.append('\n');
+    }
+    return result.toString();
+  }
+
+}
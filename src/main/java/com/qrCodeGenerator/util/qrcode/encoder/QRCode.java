@@ -19,7 +19,7 @@ public final class QRCode {
   private int numDataBytes;
   private int numECBytes;
   private int numRSBlocks;
-  private ByteMatrix matrix;
+  private ModuleMatrix matrix;
 
   public QRCode() {
     mode = null;
@@ -81,6 +81,11 @@ public final class QRCode {
 
 
   public ByteMatrix getMatrix() {
+    return matrix == null ? null : matrix.toByteMatrix();
+  }
+
+
+  public ModuleMatrix getModuleMatrix() {
     return matrix;
   }
   
@@ -89,11 +94,7 @@ public final class QRCode {
 
   public int at(int x, int y) {
 
-    int value = matrix.get(x, y);
-    if (!(value == 0 || value == 1)) {
-      throw new IllegalStateException("Bad value");
-    }
-    return value;
+    return matrix.get(x, y) ? 1 : 0;
   }
 
 
@@ -190,11 +191,16 @@ public final class QRCode {
   }
 
 
-  public void setMatrix(ByteMatrix value) {
+  public void setMatrix(ModuleMatrix value) {
     matrix = value;
   }
 
 
+  public void setMatrix(ByteMatrix value) {
+    matrix = value == null ? null : ModuleMatrix.fromByteMatrix(value);
+  }
+
+
   public static boolean isValidMaskPattern(int maskPattern) {
     return maskPattern >= 0 && maskPattern < NUM_MASK_PATTERNS;
   }
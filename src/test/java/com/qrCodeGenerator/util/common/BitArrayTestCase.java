@@ -0,0 +1,172 @@
+package com.qrCodeGenerator.util.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+public final class BitArrayTestCase {
+
+  @Test
+  public void testAppendBits() {
+    Random random = new Random(0xBA5E);
+    for (int prefix = 0; prefix < 70; prefix++) {
+      for (int numBits = 0; numBits <= 32; numBits++) {
+        BitArray array = new BitArray();
+        List<Boolean> expected = new ArrayList<Boolean>();
+        appendRandom(array, expected, prefix, random);
+        int value = random.nextInt();
+        array.appendBits(value, numBits);
+        for (int i = numBits - 1; i >= 0; i--) {
+          expected.add(((value >> i) & 1) != 0);
+        }
+        assertBits(expected, array);
+      }
+    }
+  }
+
+  @Test
+  public void testAppendBitsRejectsInvalidWidths() {
+    BitArray array = new BitArray();
+    try {
+      array.appendBits(0, -1);
+      Assert.fail();
+    } catch (IllegalArgumentException iae) {
+
+    }
+    try {
+      array.appendBits(0, 33);
+      Assert.fail();
+    } catch (IllegalArgumentException iae) {
+
+    }
+    Assert.assertEquals(0, array.getSize());
+  }
+
+  @Test
+  public void testAppendBitArray() {
+    Random random = new Random(0xA11A);
+    for (int prefix = 0; prefix < 70; prefix++) {
+      for (int otherSize = 0; otherSize < 100; otherSize += 1 + random.nextInt(5)) {
+        BitArray array = new BitArray();
+        List<Boolean> expected = new ArrayList<Boolean>();
+        appendRandom(array, expected, prefix, random);
+        BitArray other = new BitArray();
+        List<Boolean> otherExpected = new ArrayList<Boolean>();
+        appendRandom(other, otherExpected, otherSize, random);
+        array.appendBitArray(other);
+        expected.addAll(otherExpected);
+        assertBits(expected, array);
+        assertBits(otherExpected, other);
+      }
+    }
+  }
+
+  @Test
+  public void testAppendBitArrayIgnoresBitsPastSize() {
+    BitArray truncated = new BitArray();
+    for (int i = 0; i < 5; i++) {
+      truncated.appendBit(true);
+    }
+    truncated.getBitArray()[0] |= 0xFFFFFFE0;
+    BitArray array = new BitArray();
+    array.appendBit(false);
+    array.appendBitArray(truncated);
+    array.appendBit(false);
+    Assert.assertEquals(7, array.getSize());
+    Assert.assertEquals(" .XXXXX.", array.toString());
+  }
+
+  @Test
+  public void testToBytes() {
+    Random random = new Random(0x7B7E);
+    for (int size = 8; size < 140; size += 3) {
+      BitArray array = new BitArray();
+      List<Boolean> expected = new ArrayList<Boolean>();
+      appendRandom(array, expected, size, random);
+      for (int bitOffset = 0; bitOffset + 8 <= size; bitOffset++) {
+        int numBytes = (size - bitOffset) >> 3;
+        byte[] bytes = new byte[numBytes + 2];
+        array.toBytes(bitOffset, bytes, 1, numBytes);
+        Assert.assertEquals(0, bytes[0]);
+        Assert.assertEquals(0, bytes[numBytes + 1]);
+        for (int i = 0; i < numBytes; i++) {
+          int theByte = 0;
+          for (int j = 0; j < 8; j++) {
+            if (expected.get(bitOffset + i * 8 + j)) {
+              theByte |= 1 << (7 - j);
+            }
+          }
+          Assert.assertEquals("size " + size + ", offset " + bitOffset + ", byte " + i,
+              (byte) theByte, bytes[i + 1]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReverse() {
+    Random random = new Random(0x5EED);
+    for (int size = 0; size < 200; size++) {
+      BitArray array = new BitArray();
+      List<Boolean> expected = new ArrayList<Boolean>();
+      appendRandom(array, expected, size, random);
+      array.reverse();
+      List<Boolean> reversed = new ArrayList<Boolean>(size);
+      for (int i = size - 1; i >= 0; i--) {
+        reversed.add(expected.get(i));
+      }
+      assertBits(reversed, array);
+      int[] words = array.getBitArray();
+      if ((size & 0x1F) != 0) {
+        Assert.assertEquals("padding bits of size " + size, 0, words[size >> 5] >>> (size & 0x1F));
+      }
+      array.reverse();
+      assertBits(expected, array);
+    }
+  }
+
+  @Test
+  public void testReverseFixedSize() {
+    BitArray array = new BitArray(33);
+    array.set(0);
+    array.set(31);
+    array.reverse();
+    Assert.assertTrue(array.get(1));
+    Assert.assertTrue(array.get(32));
+    Assert.assertEquals(2, countSet(array));
+  }
+
+  private static void appendRandom(BitArray array, List<Boolean> expected, int count, Random random) {
+    for (int i = 0; i < count; i++) {
+      boolean bit = random.nextBoolean();
+      array.appendBit(bit);
+      expected.add(bit);
+    }
+  }
+
+  private static void assertBits(List<Boolean> expected, BitArray actual) {
+    Assert.assertEquals(expected.size(), actual.getSize());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals("bit " + i, expected.get(i), actual.get(i));
+    }
+    int[] words = actual.getBitArray();
+    for (int i = expected.size(); i < words.length << 5; i++) {
+      Assert.assertFalse("bit " + i + " past size", (words[i >> 5] & (1 << (i & 0x1F))) != 0);
+    }
+  }
+
+  private static int countSet(BitArray array) {
+    int count = 0;
+    for (int i = 0; i < array.getSize(); i++) {
+      if (array.get(i)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+}